@@ -0,0 +1,100 @@
+package adapter;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one quack() and one fly() through three adapters from Turkey to Duck: the hand-written TurkeyAdapter, one
+ * generated from an AdapterSpec, and a java.lang.reflect.Proxy.  Each wraps a turkey that only counts its calls, so
+ * the adapter is what's measured.  Every thread has its own turkey and adapter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AdapterBenchmark {
+
+    @Param({"hand-written", "generated", "proxy"})
+    public String adapter;
+
+    private CountingTurkey turkey;
+    private Duck duck;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        this.turkey = new CountingTurkey();
+        switch (this.adapter){
+            case "hand-written":
+                this.duck = new TurkeyAdapter(this.turkey);
+                break;
+            case "generated":
+                this.duck = AdapterSpec.adapt(Turkey.class).to(Duck.class)
+                        .map("quack", "gobble")
+                        .map("fly", "fly", TurkeyAdapter.SPURTS_PER_FLIGHT)
+                        .generate()
+                        .apply(this.turkey);
+                break;
+            default:
+                this.duck = proxy(this.turkey);
+        }
+    }
+
+    @Benchmark
+    public long quackAndFly(){
+        this.duck.quack();
+        this.duck.fly();
+        return this.turkey.calls;
+    }
+
+    /**
+     * Builds a reflective adapter with the same mapping as TurkeyAdapter.
+     */
+    private static Duck proxy(Turkey turkey){
+        return (Duck) Proxy.newProxyInstance(Duck.class.getClassLoader(), new Class<?>[]{Duck.class},
+                (adapter, method, arguments) -> {
+                    switch (method.getName()){
+                        case "quack":
+                            turkey.gobble();
+                            return null;
+                        case "fly":
+                            turkey.fly(TurkeyAdapter.SPURTS_PER_FLIGHT);
+                            return null;
+                        default:
+                            return method.invoke(turkey, arguments);
+                    }
+                });
+    }
+
+    /**
+     * A turkey that counts its calls instead of printing.
+     */
+    public static final class CountingTurkey implements Turkey {
+
+        long calls;
+
+        @Override
+        public void gobble() {
+            this.calls++;
+        }
+
+        @Override
+        public void fly() {
+            this.calls++;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package adapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sink.NullEventSink;
+import sink.Sinks;
+
+/**
+ * Compares making a whole flock of turkeys quack and fly as ducks by wrapping each turkey in a TurkeyAdapter with
+ * doing the same through a DuckFlockView, either with its batch operations or by iterating it as a List of Ducks.
+ * Scores are per flock; run with the GC profiler to see the bytes allocated per flock.  Output is discarded through a NullEventSink so only the adapting is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlockBenchmark {
+
+    @Param({"1000", "100000"})
+    public int turkeys;
+
+    private List<Turkey> flock;
+    private DuckFlockView view;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        Sinks.install(new NullEventSink());
+        this.flock = new ArrayList<>(this.turkeys);
+        for (int i = 0; i < this.turkeys; i++){
+            this.flock.add(new WildTurkey());
+        }
+        this.view = new DuckFlockView(this.flock);
+    }
+
+    @Benchmark
+    public int wrapEach(){
+        List<Duck> ducks = new ArrayList<>(this.flock.size());
+        for (Turkey turkey : this.flock){
+            ducks.add(new TurkeyAdapter(turkey));
+        }
+        for (Duck duck : ducks){
+            duck.quack();
+        }
+        for (Duck duck : ducks){
+            duck.fly();
+        }
+        return ducks.size();
+    }
+
+    @Benchmark
+    public void view(){
+        this.view.quackAll();
+        this.view.flyAll();
+    }
+
+    @Benchmark
+    public int viewAsList(){
+        for (Duck duck : this.view){
+            duck.quack();
+        }
+        for (Duck duck : this.view){
+            duck.fly();
+        }
+        return this.view.size();
+    }
+}
@@ -0,0 +1,74 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count, with the GC profiler attached so every result also reports the bytes
+ * allocated per operation and the GC activity it caused.  Each thread count writes its results to
+ * jmh-result-&lt;threads&gt;t.json in the working directory, so runs can be compared across commits.
+ *
+ * Usage: java -jar benchmarks/target/benchmarks.jar [-threads 1,2,4] [JMH options] [include regex ...]
+ *
+ * Every argument except -threads is a standard JMH command line argument (e.g. "Auctioneer -f 1 -wi 1").  Without
+ * -threads, every benchmark is run with 1 thread and with one thread per core; passing JMH's own -t runs just that
+ * thread count instead.  Passing -rf or -rff keeps JMH's result file settings.  -h, -l and the other listing options
+ * are handed straight to JMH.
+ */
+public class BenchmarkRunner {
+
+    private static final String THREADS = "-threads";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, java.io.IOException {
+        int[] threadCounts = null;
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++){
+            if (THREADS.equals(args[i]) && i + 1 < args.length){
+                threadCounts = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+            } else {
+                jmhArgs.add(args[i]);
+            }
+        }
+
+        CommandLineOptions options = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()){
+            org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+            return;
+        }
+
+        if (threadCounts == null){
+            if (options.getThreads().hasValue()){
+                threadCounts = new int[]{options.getThreads().get()};
+            } else {
+                int cores = Runtime.getRuntime().availableProcessors();
+                threadCounts = cores > 1 ? new int[]{1, cores} : new int[]{1};
+            }
+        }
+        boolean profilingGc = options.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals("gc")
+                        || profiler.getKlass().equals(GCProfiler.class.getName()));
+        boolean resultFileChosen = options.getResult().hasValue() || options.getResultFormat().hasValue();
+
+        for (int threads : threadCounts){
+            ChainedOptionsBuilder run = new OptionsBuilder().parent(options).threads(threads);
+            if (!profilingGc){
+                run.addProfiler(GCProfiler.class);
+            }
+            if (!resultFileChosen){
+                run.resultFormat(ResultFormatType.JSON).result("jmh-result-" + threads + "t.json");
+            }
+            new Runner(run.build()).run();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package command;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sink.NullEventSink;
+import sink.Sinks;
+
+/**
+ * Measures MacroCommand.execute() for macros of increasing size, made of a mix of light, garage door and alarm
+ * commands.  All threads share one macro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MacroCommandBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int size;
+
+    private MacroCommand macro;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        Sinks.install(new NullEventSink());
+        Command[] kinds = {
+                new LightOnCommand(new Light("porch")),
+                new GarageOpenCommand(new GarageDoor()),
+                new AlarmArmCommand(new Alarm())
+        };
+        Command[] commands = new Command[this.size];
+        for (int i = 0; i < this.size; i++){
+            commands[i] = kinds[i % kinds.length];
+        }
+        this.macro = new MacroCommand(commands);
+    }
+
+    @Benchmark
+    public void execute(){
+        this.macro.execute();
+    }
+}
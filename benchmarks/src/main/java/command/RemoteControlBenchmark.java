@@ -0,0 +1,63 @@
+package command;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sink.NullEventSink;
+import sink.Sinks;
+
+/**
+ * Measures RemoteControl.buttonPushed() with the buttons cycled in turn, when every button holds the same kind of
+ * command and when each holds a different kind (so the call to execute() can't be devirtualized).  All threads share
+ * one remote.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RemoteControlBenchmark {
+
+    @Param({"1", "4"})
+    public int commandKinds;
+
+    private RemoteControl remote;
+
+    @State(Scope.Thread)
+    public static class Buttons {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        Sinks.install(new NullEventSink());
+        Command[] kinds = {
+                new LightOnCommand(new Light("porch")),
+                new GarageOpenCommand(new GarageDoor()),
+                new AlarmArmCommand(new Alarm()),
+                new NoCommand()
+        };
+        this.remote = new RemoteControl();
+        for (int slot = 0; slot < 4; slot++){
+            this.remote.setCommand(slot, kinds[slot % this.commandKinds]);
+        }
+    }
+
+    @Benchmark
+    public void buttonPushed(Buttons buttons){
+        this.remote.buttonPushed(buttons.next++ & 3);
+    }
+}
@@ -0,0 +1,74 @@
+package decorator;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering the description of a decorator chain of increasing depth: with decorate(), streamed into a
+ * reused buffer with decorate(Appendable), from a precompiled DecorationPlan, and by compiling a plan and rendering it
+ * each time.  All threads share one chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecoratorChainBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int depth;
+
+    private ChristmasTree tree;
+    private DecorationPlan plan;
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        final StringBuilder description = new StringBuilder();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        ChristmasTree tree = new PineChristmasTree();
+        for (int i = 0; i < this.depth; i++){
+            tree = (i % 2 == 0) ? new TreeLights(tree) : new TreeTopper(tree);
+        }
+        this.tree = tree;
+        this.plan = DecorationPlan.compile(tree);
+    }
+
+    @Benchmark
+    public String decorate(){
+        return this.tree.decorate();
+    }
+
+    @Benchmark
+    public int decorateInto(Buffer buffer) throws IOException {
+        buffer.description.setLength(0);
+        this.tree.decorate(buffer.description);
+        return buffer.description.length();
+    }
+
+    @Benchmark
+    public String compileAndRender(){
+        return DecorationPlan.compile(this.tree).render();
+    }
+
+    @Benchmark
+    public String renderPlan(){
+        return this.plan.render();
+    }
+}
@@ -0,0 +1,51 @@
+package factory;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sink.NullEventSink;
+import sink.Sinks;
+
+/**
+ * Measures PizzaStore.orderPizza() for each store and type of pizza, from creating the pizza through boxing it.
+ * All threads order from one store.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PizzaStoreBenchmark {
+
+    @Param({"NY", "Chicago"})
+    public String style;
+
+    @Param({"cheese", "pepperoni"})
+    public String type;
+
+    private PizzaStore store;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        Sinks.install(new NullEventSink());
+        this.store = "NY".equals(this.style) ? new NYPizzaStore() : new ChicagoPizzaStore();
+    }
+
+    @Benchmark
+    public Pizza orderPizza(){
+        return this.store.orderPizza(this.type);
+    }
+}
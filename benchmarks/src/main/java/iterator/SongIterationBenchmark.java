@@ -0,0 +1,66 @@
+package iterator;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures walking a whole playlist through its iterator, for the HashMap-backed MySongs and the array-backed
+ * YourSongs, with playlists of increasing length.  All threads share the playlists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SongIterationBenchmark {
+
+    @Param({"3", "100", "10000"})
+    public int songs;
+
+    private MySongs mine;
+    private YourSongs yours;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        this.mine = new MySongs();
+        this.yours = new YourSongs();
+        this.mine.mySongs.clear();
+        this.yours.songs = new Song[this.songs];
+        for (int i = 0; i < this.songs; i++){
+            Song song = new Song("Artist " + i, "Song " + i);
+            this.mine.mySongs.put(i, song);
+            this.yours.songs[i] = song;
+        }
+    }
+
+    @Benchmark
+    public void mySongs(Blackhole blackhole){
+        Iterator<Song> songs = this.mine.iterator();
+        while (songs.hasNext()){
+            blackhole.consume(songs.next());
+        }
+    }
+
+    @Benchmark
+    public void yourSongs(Blackhole blackhole){
+        Iterator<Song> songs = this.yours.iterator();
+        while (songs.hasNext()){
+            blackhole.consume(songs.next());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of recording into a counter and a latency histogram, live and with metrics switched off.  All
+ * threads record into the same metrics, so runs with more threads show the cost under contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    @Param({"default", "noop"})
+    public String registry;
+
+    private Counter counter;
+    private LatencyHistogram histogram;
+
+    @State(Scope.Thread)
+    public static class Latencies {
+        long next = 1;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        // A registry of its own, rather than Metrics, so both kinds can be measured in one run.
+        MetricsRegistry metrics = "noop".equals(this.registry) ? new NoOpMetricsRegistry() : new DefaultMetricsRegistry();
+        this.counter = metrics.counter("benchmark.counter");
+        this.histogram = metrics.histogram("benchmark.latency");
+    }
+
+    @Benchmark
+    public void increment(){
+        this.counter.increment();
+    }
+
+    @Benchmark
+    public void record(Latencies latencies){
+        // Spread the recorded values over many buckets, as real latencies would be.
+        latencies.next = latencies.next * 6364136223846793005L + 1442695040888963407L;
+        this.histogram.record(latencies.next >>> 44);
+    }
+
+    @Benchmark
+    public void timeOperation(){
+        long start = this.histogram.start();
+        this.histogram.recordSince(start);
+    }
+}
@@ -0,0 +1,80 @@
+package observer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sink.NullEventSink;
+import sink.Sinks;
+
+/**
+ * Measures Auctioneer.receiveBid() for a bid that beats the highest bid (and so notifies every bidder) and for one
+ * that doesn't, with a growing number of bidders watching.
+ *
+ * An Auctioneer isn't thread-safe, so every benchmark thread runs its own auction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AuctioneerBenchmark {
+
+    // The auctioneer keeps every bid it receives; the list is cleared at this size so a run doesn't measure the heap.
+    private static final int MAX_KEPT_BIDS = 1 << 16;
+
+    @Param({"1", "10", "100"})
+    public int bidders;
+
+    private Auctioneer auctioneer;
+    private int amount;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        Sinks.install(new NullEventSink());
+        Auction auction = new Auction();
+        for (int i = 0; i < this.bidders; i++){
+            auction.addBidder(new Bidder());
+        }
+        this.auctioneer = auction.auctioneer;
+    }
+
+    @Setup(Level.Iteration)
+    public void newRound(){
+        this.auctioneer.bids.clear();
+        this.auctioneer.highestBid = 0;
+        this.amount = 0;
+    }
+
+    @Benchmark
+    public int higherBid(){
+        this.trimBids();
+        this.auctioneer.receiveBid(new Bid(++this.amount));
+        return this.auctioneer.highestBid;
+    }
+
+    @Benchmark
+    public int lowerBid(){
+        this.trimBids();
+        this.auctioneer.receiveBid(new Bid(0));
+        return this.auctioneer.highestBid;
+    }
+
+    private void trimBids(){
+        if (this.auctioneer.bids.size() >= MAX_KEPT_BIDS){
+            this.auctioneer.bids.clear();
+        }
+    }
+}
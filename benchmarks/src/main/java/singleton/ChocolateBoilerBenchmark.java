@@ -0,0 +1,76 @@
+package singleton;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures looking up a ChocolateBoiler: the single factory-wide instance, and the per-line instances for an
+ * increasing number of production lines, cycled in turn.  Every line's boiler is created before timing starts.
+ *
+ * advance() looks up the factory-wide boiler and tries to move it one step through its fill/boil/drain cycle, so with
+ * several threads they contend on the boiler's state and some steps are rejected.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChocolateBoilerBenchmark {
+
+    @Param({"1", "64", "4096"})
+    public int lines;
+
+    private String[] names;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        this.names = new String[this.lines];
+        for (int i = 0; i < this.lines; i++){
+            this.names[i] = "line-" + i;
+            ChocolateBoiler.getInstance(this.names[i]);
+        }
+    }
+
+    @Benchmark
+    public ChocolateBoiler getInstance(){
+        return ChocolateBoiler.getInstance();
+    }
+
+    @Benchmark
+    public boolean advance(){
+        ChocolateBoiler boiler = ChocolateBoiler.getInstance();
+        switch (boiler.getState()){
+            case EMPTY:
+                return boiler.fill();
+            case FULL:
+                return boiler.boil();
+            default:
+                return boiler.drain();
+        }
+    }
+
+    @Benchmark
+    public ChocolateBoiler getInstanceForLine(Cursor cursor){
+        int line = cursor.next;
+        cursor.next = (line + 1 == this.lines) ? 0 : line + 1;
+        return ChocolateBoiler.getInstance(this.names[line]);
+    }
+}
@@ -0,0 +1,71 @@
+package singleton;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares looking up an existing instance in an InstanceRegistry with a plain ConcurrentHashMap.computeIfAbsent, for
+ * an increasing number of keys cycled in turn.  Every key is created before timing starts, so only the hot lookup path
+ * is measured.  All threads share the registry and the map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstanceRegistryBenchmark {
+
+    @Param({"1", "64", "65536"})
+    public int keys;
+
+    private String[] names;
+    private InstanceRegistry<String, Object> registry;
+    private ConcurrentHashMap<String, Object> map;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        this.names = new String[this.keys];
+        this.registry = new InstanceRegistry<>(key -> new Object());
+        this.map = new ConcurrentHashMap<>();
+        for (int i = 0; i < this.keys; i++){
+            this.names[i] = "line-" + i;
+            this.registry.get(this.names[i]);
+            this.map.computeIfAbsent(this.names[i], key -> new Object());
+        }
+    }
+
+    @Benchmark
+    public Object registry(Cursor cursor){
+        return this.registry.get(this.next(cursor));
+    }
+
+    @Benchmark
+    public Object computeIfAbsent(Cursor cursor){
+        return this.map.computeIfAbsent(this.next(cursor), key -> new Object());
+    }
+
+    private String next(Cursor cursor){
+        int key = cursor.next;
+        cursor.next = (key + 1 == this.keys) ? 0 : key + 1;
+        return this.names[key];
+    }
+}
@@ -0,0 +1,97 @@
+package strategy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sink.NullEventSink;
+import sink.Sinks;
+
+/**
+ * Measures TravelContext.takeTrip() by car, by bus, and in adaptive mode, with everybody in a population of
+ * increasing size taking turns to travel back and forth.  All threads share one context; each thread moves its own
+ * people.
+ *
+ * takeTrips() instead moves the thread's whole population in one TravelContext.takeTrips() call, so its score is per
+ * batch; divide by the population for a per-trip cost comparable to takeTrip().
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TravelContextBenchmark {
+
+    @Param({"car", "bus", "adaptive"})
+    public String mode;
+
+    @Param({"1", "1000", "100000"})
+    public int people;
+
+    private TravelContext context;
+
+    @State(Scope.Thread)
+    public static class Population {
+        Person[] people;
+        String[] there;
+        String[] back;
+        int next;
+        boolean away;
+
+        @Setup(Level.Trial)
+        public void setUp(TravelContextBenchmark benchmark){
+            int size = benchmark.people;
+            this.people = new Person[size];
+            this.there = new String[size];
+            this.back = new String[size];
+            for (int i = 0; i < size; i++){
+                this.back[i] = "home " + (i % 100);
+                this.there[i] = "terminal " + (i % 4);
+                this.people[i] = new Person("person " + i, this.back[i]);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        Sinks.install(new NullEventSink());
+        this.context = new TravelContext();
+        switch (this.mode){
+            case "car":
+                this.context.setStrategy(new CarStrategy());
+                break;
+            case "bus":
+                this.context.setStrategy(new BusStrategy());
+                break;
+            default:
+                this.context.setSelector(new StrategySelector(0.05, new CarStrategy(), new BusStrategy()));
+        }
+    }
+
+    @Benchmark
+    public void takeTrip(Population population){
+        int i = population.next;
+        Person person = population.people[i];
+        String destination = (person.getLocation() == population.back[i]) ? population.there[i] : population.back[i];
+        this.context.takeTrip(person, destination);
+        population.next = (i + 1 == population.people.length) ? 0 : i + 1;
+    }
+
+    @Benchmark
+    public void takeTrips(Population population){
+        this.context.takeTrips(population.people, population.away ? population.back : population.there);
+        population.away = !population.away;
+    }
+}
@@ -0,0 +1,200 @@
+package adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+class AdapterGeneratorTest {
+
+    public static class CountingTurkey implements Turkey {
+        int gobbles;
+        int flights;
+
+        @Override
+        public void gobble() { this.gobbles++; }
+
+        @Override
+        public void fly() { this.flights++; }
+    }
+
+    public interface Numbers {
+        long add(long a, int b, double c);
+        double half(double value);
+        float scale(float value, short by);
+        boolean isUpper(char c);
+        byte first(byte[] bytes);
+    }
+
+    public interface Arithmetic {
+        long sum(long a, int b, double c);
+        double divide(double value);
+        float times(float value, short by);
+        boolean upper(char c);
+        byte head(byte[] bytes);
+    }
+
+    public static class Calculator implements Arithmetic {
+        @Override
+        public long sum(long a, int b, double c) { return a + b + (long) c; }
+
+        @Override
+        public double divide(double value) { return value / 2; }
+
+        @Override
+        public float times(float value, short by) { return value * by; }
+
+        @Override
+        public boolean upper(char c) { return Character.isUpperCase(c); }
+
+        @Override
+        public byte head(byte[] bytes) { return bytes[0]; }
+    }
+
+    public interface Ticker {
+        void tick();
+        long latest();
+        String label(String prefix, int number, long big, Object suffix);
+    }
+
+    public static class Clock {
+        long ticks;
+
+        public long advance() { return ++this.ticks; }
+
+        public String describe(String prefix, int number, long big, Object suffix) {
+            return prefix + number + "/" + big + suffix;
+        }
+    }
+
+    public interface Goes { void go(); }
+
+    public interface AlsoGoes { void go(); }
+
+    public interface GoesBoth extends Goes, AlsoGoes { }
+
+    public interface Greeter {
+        String greet();
+
+        default String greetTwice() { return this.greet() + this.greet(); }
+    }
+
+    public interface Named { String name(); }
+
+    public interface NamedThing extends Named { }
+
+    public interface Apply { Object apply(Object o); }
+
+    @Test
+    void adaptsTurkeyToDuckLikeTurkeyAdapter() {
+        Function<Turkey, Duck> adapter = AdapterSpec.adapt(Turkey.class).to(Duck.class)
+                .map("quack", "gobble")
+                .map("fly", "fly", 5)
+                .generate();
+        CountingTurkey turkey = new CountingTurkey();
+        Duck duck = adapter.apply(turkey);
+
+        duck.quack();
+        duck.fly();
+
+        assertEquals(1, turkey.gobbles);
+        assertEquals(5, turkey.flights);
+    }
+
+    @Test
+    void passesPrimitiveAndWideArgumentsAndReturnsResults() {
+        Numbers numbers = AdapterSpec.adapt(Arithmetic.class).to(Numbers.class)
+                .map("add", "sum")
+                .map("half", "divide")
+                .map("scale", "times")
+                .map("isUpper", "upper")
+                .map("first", "head")
+                .generate()
+                .apply(new Calculator());
+
+        assertEquals(3_000_000_000L + 7 + 2, numbers.add(3_000_000_000L, 7, 2.9));
+        assertEquals(1.25, numbers.half(2.5));
+        assertEquals(7.5f, numbers.scale(2.5f, (short) 3));
+        assertTrue(numbers.isUpper('Q'));
+        assertEquals((byte) -4, numbers.first(new byte[]{-4, 5}));
+    }
+
+    @Test
+    void repeatsCallsAndReturnsTheLastResult() {
+        Clock clock = new Clock();
+        Ticker ticker = AdapterSpec.adapt(Clock.class).to(Ticker.class)
+                .map("tick", "advance", 3)
+                .map("latest", "advance", 2)
+                .map("label", "describe")
+                .generate()
+                .apply(clock);
+
+        // tick() is void, so the long each call returns is discarded.
+        ticker.tick();
+        assertEquals(3, clock.ticks);
+        assertEquals(5, ticker.latest());
+        assertEquals("a1/10000000000!", ticker.label("a", 1, 10_000_000_000L, "!"));
+    }
+
+    @Test
+    void implementsMethodsDeclaredByMoreThanOneSuperinterfaceOnce() {
+        CountingTurkey turkey = new CountingTurkey();
+        GoesBoth goes = AdapterSpec.adapt(Turkey.class).to(GoesBoth.class)
+                .map("go", "gobble")
+                .generate()
+                .apply(turkey);
+
+        goes.go();
+        ((Goes) goes).go();
+        ((AlsoGoes) goes).go();
+
+        assertEquals(3, turkey.gobbles);
+    }
+
+    @Test
+    void implementsInheritedMethodsAndKeepsDefaultMethods() {
+        Greeter greeter = AdapterSpec.adapt(NamedThing.class).to(Greeter.class)
+                .map("greet", "name")
+                .generate()
+                .apply(() -> "hi");
+
+        assertEquals("hi", greeter.greet());
+        assertEquals("hihi", greeter.greetTwice());
+    }
+
+    @Test
+    void createsOneAdapterPerAdaptee() {
+        Function<Turkey, Duck> adapter = AdapterSpec.adapt(Turkey.class).to(Duck.class)
+                .map("quack", "gobble")
+                .map("fly")
+                .generate();
+        CountingTurkey first = new CountingTurkey();
+        CountingTurkey second = new CountingTurkey();
+
+        adapter.apply(first).quack();
+        adapter.apply(second).fly();
+
+        assertEquals(1, first.gobbles);
+        assertEquals(0, first.flights);
+        assertEquals(1, second.flights);
+    }
+
+    @Test
+    void rejectsIncompleteOrMismatchedSpecs() {
+        assertThrows(IllegalArgumentException.class, () ->
+                AdapterSpec.adapt(Turkey.class).to(Duck.class).map("quack", "gobble").generate());
+        assertThrows(IllegalArgumentException.class, () ->
+                AdapterSpec.adapt(Turkey.class).to(Duck.class).map("quack", "honk").map("fly").generate());
+        assertThrows(IllegalArgumentException.class, () ->
+                AdapterSpec.adapt(Clock.class).to(Named.class).map("name", "advance").generate());
+        assertThrows(IllegalArgumentException.class, () ->
+                AdapterSpec.adapt(Turkey.class).to(Apply.class).map("apply", "gobble").generate());
+        assertThrows(IllegalArgumentException.class, () ->
+                AdapterSpec.adapt(Turkey.class).to(Clock.class));
+        assertThrows(IllegalArgumentException.class, () ->
+                AdapterSpec.adapt(Turkey.class).to(Duck.class).map("fly", "fly", 0));
+    }
+}
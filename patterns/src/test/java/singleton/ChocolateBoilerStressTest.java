@@ -0,0 +1,140 @@
+package singleton;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * A stress test, in the style of jcstress, for the chocolate boiler.  A pool of racer threads is released together
+ * from a barrier for every step so they really do race, and each race checks an invariant that any data race would
+ * break:
+ *
+ * - every thread racing on the first getInstance() call gets the same boiler;
+ * - when every thread tries the same step at once, exactly one of them succeeds;
+ * - steps taken out of order never succeed.
+ */
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+class ChocolateBoilerStressTest {
+
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int ROUNDS = 2_000;
+
+    private Racers racers;
+
+    @BeforeEach
+    void startRacers() {
+        this.racers = new Racers(THREADS);
+    }
+
+    @AfterEach
+    void stopRacers() throws Exception {
+        this.racers.race(null);
+    }
+
+    @Test
+    void racingThreadsShareOneBoiler() throws Exception {
+        Set<ChocolateBoiler> instances = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        this.racers.race(() -> instances.add(ChocolateBoiler.getInstance()));
+
+        assertEquals(1, instances.size());
+        assertSame(ChocolateBoiler.getInstance(), instances.iterator().next());
+    }
+
+    @Test
+    void exactlyOneThreadTakesEachStepAndNoneTakesAStepOutOfOrder() throws Exception {
+        // A line of its own, so the test starts from an empty boiler whatever else has used the shared one.
+        ChocolateBoiler boiler = ChocolateBoiler.getInstance("stress");
+        try {
+            for (int round = 0; round < ROUNDS; round++){
+                this.expectOne("fill", boiler::fill, ChocolateBoiler.State.FULL, boiler, round);
+                this.expectNone("drain before boil", boiler::drain, boiler, round);
+                this.expectOne("boil", boiler::boil, ChocolateBoiler.State.BOILED, boiler, round);
+                this.expectNone("fill before drain", boiler::fill, boiler, round);
+                this.expectOne("drain", boiler::drain, ChocolateBoiler.State.EMPTY, boiler, round);
+            }
+        } finally {
+            ChocolateBoiler.retireLine("stress");
+        }
+    }
+
+    private void expectOne(String step, BooleanSupplier action, ChocolateBoiler.State expected,
+                           ChocolateBoiler boiler, int round) throws Exception {
+        int successes = this.racers.race(action);
+        assertEquals(1, successes, step + " successes in round " + round);
+        assertEquals(expected, boiler.getState(), "state after " + step + " in round " + round);
+    }
+
+    private void expectNone(String step, BooleanSupplier action, ChocolateBoiler boiler, int round) throws Exception {
+        ChocolateBoiler.State before = boiler.getState();
+        int successes = this.racers.race(action);
+        assertEquals(0, successes, step + " successes in round " + round);
+        assertEquals(before, boiler.getState(), "state after " + step + " in round " + round);
+    }
+
+    /**
+     * Threads that wait at a barrier and run the same step all at once.
+     */
+    private static final class Racers {
+
+        private final CyclicBarrier start;
+        private final CyclicBarrier finish;
+        private final AtomicInteger successes;
+        private volatile BooleanSupplier step;
+
+        Racers(int threads){
+            this.start = new CyclicBarrier(threads + 1);
+            this.finish = new CyclicBarrier(threads + 1);
+            this.successes = new AtomicInteger();
+            for (int i = 0; i < threads; i++){
+                Thread racer = new Thread(this::run, "boiler-racer-" + i);
+                racer.setDaemon(true);
+                racer.start();
+            }
+        }
+
+        /**
+         * Releases every racer at once to run the given step, and counts how many of them succeeded.  A null step
+         * tells the racers to stop.
+         */
+        int race(BooleanSupplier step) throws Exception {
+            this.step = step;
+            this.successes.set(0);
+            this.start.await();
+            if (step != null){
+                this.finish.await();
+            }
+            return this.successes.get();
+        }
+
+        private void run(){
+            try {
+                while (true){
+                    this.start.await();
+                    BooleanSupplier step = this.step;
+                    if (step == null){
+                        return;
+                    }
+                    if (step.getAsBoolean()){
+                        this.successes.incrementAndGet();
+                    }
+                    this.finish.await();
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
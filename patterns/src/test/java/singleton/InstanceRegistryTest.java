@@ -0,0 +1,63 @@
+package singleton;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class InstanceRegistryTest {
+
+    @Test
+    void createsOneInstancePerKey() {
+        AtomicInteger created = new AtomicInteger();
+        InstanceRegistry<String, Object> registry = new InstanceRegistry<>(key -> {
+            created.incrementAndGet();
+            return new Object();
+        });
+
+        Object first = registry.get("a");
+
+        assertSame(first, registry.get("a"));
+        assertNotSame(first, registry.get("b"));
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void createsANewInstanceAfterEviction() {
+        AtomicInteger evicted = new AtomicInteger();
+        InstanceRegistry<String, Object> registry =
+                new InstanceRegistry<>(key -> new Object(), (key, instance) -> evicted.incrementAndGet(), 1);
+        Object first = registry.get("a");
+
+        registry.evict("a");
+
+        assertFalse(registry.contains("a"));
+        assertNotSame(first, registry.get("a"));
+        assertEquals(1, evicted.get());
+    }
+
+    @Test
+    void failsFastWhenTheFactoryReturnsNull() {
+        InstanceRegistry<String, Object> registry = new InstanceRegistry<>(key -> null);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertThrows(NullPointerException.class, () -> registry.get("a")));
+    }
+
+    @Test
+    void refusesRequestsAfterShutdown() {
+        InstanceRegistry<String, Object> registry = new InstanceRegistry<>(key -> new Object());
+        registry.get("a");
+
+        registry.shutdown();
+
+        assertThrows(IllegalStateException.class, () -> registry.get("a"));
+    }
+}
@@ -0,0 +1,373 @@
+package adapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A class that writes adapter classes at runtime from an AdapterSpec.  The generated class is exactly what one would
+ * write by hand (compare TurkeyAdapter): a final field holding the adaptee, and one method per target method that
+ * calls the mapped source method directly, with repeated calls unrolled.  It is defined as a hidden class, so the JIT
+ * sees ordinary interface calls it can inline through, unlike a java.lang.reflect.Proxy, which goes through an
+ * InvocationHandler and reflection on every call.
+ *
+ * A hidden class cannot be named from outside, so nothing else can call its constructor directly.  The generated
+ * class therefore also implements Function: one instance with no adaptee serves as the factory, and its apply() news
+ * up adapters with a plain constructor call.
+ *
+ * The generated class lives in this package, so the source and target types must be public.
+ */
+final class AdapterGenerator {
+
+    private static final int CLASS_FILE_VERSION = 61;
+    private static final String FACTORY_METHOD = "apply(Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private AdapterGenerator(){ }
+
+    @SuppressWarnings("unchecked")
+    static <S, T> Function<S, T> generate(AdapterSpec<S, T> spec){
+        byte[] classFile = writeClass(spec);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile, true);
+            MethodType constructorType = MethodType.methodType(void.class, spec.getSource());
+            MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(), constructorType);
+            return (Function<S, T>) constructor.invoke((S) null);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not define adapter for " + spec.getTarget().getName(), e);
+        }
+    }
+
+    private static byte[] writeClass(AdapterSpec<?, ?> spec){
+        Class<?> source = spec.getSource();
+        Class<?> target = spec.getTarget();
+        ConstantPool pool = new ConstantPool();
+        String className = "adapter/" + target.getSimpleName() + "From" + source.getSimpleName() + "Adapter";
+        String sourceDescriptor = descriptor(source);
+
+        int thisClass = pool.classRef(className);
+        int objectClass = pool.classRef("java/lang/Object");
+        int sourceClass = pool.classRef(internalName(source));
+        int targetClass = pool.classRef(internalName(target));
+        int functionClass = pool.classRef("java/util/function/Function");
+        int adapteeField = pool.memberRef(9, className, "adaptee", sourceDescriptor);
+        int objectInit = pool.memberRef(10, "java/lang/Object", "<init>", "()V");
+
+        int constructor = pool.memberRef(10, className, "<init>", "(" + sourceDescriptor + ")V");
+
+        List<byte[]> methods = new ArrayList<>();
+        methods.add(method(pool, ACC_PUBLIC, "<init>", "(" + sourceDescriptor + ")V", 2, 2, code -> {
+            code.writeByte(0x2a);                                    // aload_0
+            code.writeByte(0xb7);                                    // invokespecial Object.<init>
+            code.writeShort(objectInit);
+            code.writeByte(0x2a);                                    // aload_0
+            code.writeByte(0x2b);                                    // aload_1
+            code.writeByte(0xb5);                                    // putfield adaptee
+            code.writeShort(adapteeField);
+            code.writeByte(0xb1);                                    // return
+        }));
+        methods.add(method(pool, ACC_PUBLIC | ACC_FINAL, "apply", FACTORY_METHOD.substring("apply".length()), 3, 2,
+                code -> {
+            code.writeByte(0xbb);                                    // new
+            code.writeShort(thisClass);
+            code.writeByte(0x59);                                    // dup
+            code.writeByte(0x2b);                                    // aload_1
+            code.writeByte(0xc0);                                    // checkcast source
+            code.writeShort(sourceClass);
+            code.writeByte(0xb7);                                    // invokespecial <init>
+            code.writeShort(constructor);
+            code.writeByte(0xb0);                                    // areturn
+        }));
+
+        for (Method targetMethod : targetMethods(target)){
+            AdapterSpec.Mapping mapping = spec.getMappings().get(targetMethod.getName());
+            if (mapping == null){
+                if (targetMethod.isDefault()){
+                    continue;
+                }
+                throw new IllegalArgumentException("No mapping for " + target.getSimpleName() + "."
+                        + targetMethod.getName());
+            }
+            methods.add(adapterMethod(pool, source, targetMethod, mapping, adapteeField));
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_FILE_VERSION);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(objectClass);
+            out.writeShort(2);
+            out.writeShort(targetClass);
+            out.writeShort(functionClass);
+            out.writeShort(1);                                       // one field: the adaptee
+            out.writeShort(ACC_PRIVATE | ACC_FINAL);
+            out.writeShort(pool.utf8("adaptee"));
+            out.writeShort(pool.utf8(sourceDescriptor));
+            out.writeShort(0);
+            out.writeShort(methods.size());
+            for (byte[] method : methods){
+                out.write(method);
+            }
+            out.writeShort(0);                                       // no class attributes
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the instance methods of the target interface, one per name and descriptor.  getMethods() lists a method
+     * once for every superinterface declaring it (e.g. for interface AB extends A, B where A and B both declare go()),
+     * but a class may only define it once.  Where the copies differ, the abstract one is kept, since that is the one
+     * that must be implemented.
+     */
+    private static Collection<Method> targetMethods(Class<?> target){
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method method : target.getMethods()){
+            if (Modifier.isStatic(method.getModifiers())){
+                continue;
+            }
+            String key = method.getName() + MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+                    .toMethodDescriptorString();
+            if (key.equals(FACTORY_METHOD)){
+                throw new IllegalArgumentException(target.getSimpleName() + " declares apply(Object), which the"
+                        + " generated adapter already uses as its factory method");
+            }
+            Method existing = methods.get(key);
+            if (existing == null || (existing.isDefault() && !method.isDefault())){
+                methods.put(key, method);
+            }
+        }
+        return methods.values();
+    }
+
+    /**
+     * Writes the implementation of one target method: load the adaptee and the arguments and call the source method,
+     * as many times in a row as the mapping says.
+     */
+    private static byte[] adapterMethod(ConstantPool pool, Class<?> source, Method targetMethod,
+                                        AdapterSpec.Mapping mapping, int adapteeField){
+        Class<?>[] parameters = targetMethod.getParameterTypes();
+        Method sourceMethod;
+        try {
+            sourceMethod = source.getMethod(mapping.sourceMethod, parameters);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(source.getSimpleName() + " has no method " + mapping.sourceMethod
+                    + " taking the same arguments as " + targetMethod.getName(), e);
+        }
+        Class<?> returned = sourceMethod.getReturnType();
+        Class<?> expected = targetMethod.getReturnType();
+        if (expected != void.class && !expected.isAssignableFrom(returned)){
+            throw new IllegalArgumentException(mapping.sourceMethod + " returns " + returned.getSimpleName()
+                    + " but " + targetMethod.getName() + " must return " + expected.getSimpleName());
+        }
+
+        String targetDescriptor = MethodType.methodType(expected, parameters).toMethodDescriptorString();
+        String sourceDescriptor = MethodType.methodType(returned, parameters).toMethodDescriptorString();
+        boolean sourceIsInterface = source.isInterface();
+        int call = pool.memberRef(sourceIsInterface ? 11 : 10, internalName(source), mapping.sourceMethod,
+                sourceDescriptor);
+        int argumentSlots = 0;
+        for (Class<?> parameter : parameters){
+            argumentSlots += slots(parameter);
+        }
+        int maxStack = Math.max(1 + argumentSlots, slots(returned));
+        int maxLocals = 1 + argumentSlots;
+        int callSlots = 1 + argumentSlots;
+
+        return method(pool, ACC_PUBLIC | ACC_FINAL, targetMethod.getName(), targetDescriptor, maxStack, maxLocals,
+                code -> {
+                    for (int i = 0; i < mapping.times; i++){
+                        code.writeByte(0x2a);                        // aload_0
+                        code.writeByte(0xb4);                        // getfield adaptee
+                        code.writeShort(adapteeField);
+                        int slot = 1;
+                        for (Class<?> parameter : parameters){
+                            code.writeByte(loadOpcode(parameter));   // xload slot
+                            code.writeByte(slot);
+                            slot += slots(parameter);
+                        }
+                        if (sourceIsInterface){
+                            code.writeByte(0xb9);                    // invokeinterface
+                            code.writeShort(call);
+                            code.writeByte(callSlots);
+                            code.writeByte(0);
+                        } else {
+                            code.writeByte(0xb6);                    // invokevirtual
+                            code.writeShort(call);
+                        }
+                        boolean last = i == mapping.times - 1;
+                        if (slots(returned) > 0 && (!last || expected == void.class)){
+                            code.writeByte(slots(returned) == 2 ? 0x58 : 0x57);  // pop2 / pop
+                        }
+                    }
+                    code.writeByte(returnOpcode(expected));
+                });
+    }
+
+    private static byte[] method(ConstantPool pool, int access, String name, String descriptor, int maxStack,
+                                 int maxLocals, CodeWriter body){
+        try {
+            ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+            body.write(new DataOutputStream(codeBytes));
+            byte[] code = codeBytes.toByteArray();
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(access);
+            out.writeShort(pool.utf8(name));
+            out.writeShort(pool.utf8(descriptor));
+            out.writeShort(1);                                       // one attribute: Code
+            out.writeShort(pool.utf8("Code"));
+            out.writeInt(12 + code.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);                                       // no exception table
+            out.writeShort(0);                                       // no code attributes
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int slots(Class<?> type){
+        if (type == void.class){
+            return 0;
+        }
+        return (type == long.class || type == double.class) ? 2 : 1;
+    }
+
+    private static int loadOpcode(Class<?> type){
+        if (!type.isPrimitive()){
+            return 0x19;                                             // aload
+        }
+        if (type == long.class){
+            return 0x16;                                             // lload
+        }
+        if (type == float.class){
+            return 0x17;                                             // fload
+        }
+        if (type == double.class){
+            return 0x18;                                             // dload
+        }
+        return 0x15;                                                 // iload (int, short, char, byte, boolean)
+    }
+
+    private static int returnOpcode(Class<?> type){
+        if (type == void.class){
+            return 0xb1;                                             // return
+        }
+        if (!type.isPrimitive()){
+            return 0xb0;                                             // areturn
+        }
+        if (type == long.class){
+            return 0xad;                                             // lreturn
+        }
+        if (type == float.class){
+            return 0xae;                                             // freturn
+        }
+        if (type == double.class){
+            return 0xaf;                                             // dreturn
+        }
+        return 0xac;                                                 // ireturn
+    }
+
+    private static String internalName(Class<?> type){
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type){
+        return MethodType.methodType(type).toMethodDescriptorString().substring(2);
+    }
+
+    private interface CodeWriter {
+        void write(DataOutputStream code) throws IOException;
+    }
+
+    /**
+     * The constant pool of the class being written.  Each constant is added once and referred to by its index.
+     */
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(this.bytes);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value){
+            return this.add("utf8:" + value, out -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        int classRef(String internalName){
+            int name = this.utf8(internalName);
+            return this.add("class:" + internalName, out -> {
+                out.writeByte(7);
+                out.writeShort(name);
+            });
+        }
+
+        /**
+         * Adds a field (tag 9), method (tag 10) or interface method (tag 11) reference.
+         */
+        int memberRef(int tag, String owner, String name, String descriptor){
+            int ownerClass = this.classRef(owner);
+            int memberName = this.utf8(name);
+            int memberDescriptor = this.utf8(descriptor);
+            int nameAndType = this.add("nat:" + name + ":" + descriptor, out -> {
+                out.writeByte(12);
+                out.writeShort(memberName);
+                out.writeShort(memberDescriptor);
+            });
+            return this.add("ref" + tag + ":" + owner + "." + name + descriptor, out -> {
+                out.writeByte(tag);
+                out.writeShort(ownerClass);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int add(String key, CodeWriter entry){
+            Integer index = this.indexes.get(key);
+            if (index != null){
+                return index;
+            }
+            try {
+                entry.write(this.out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.indexes.put(key, this.count);
+            return this.count++;
+        }
+
+        void writeTo(DataOutputStream classFile) throws IOException {
+            classFile.writeShort(this.count);
+            classFile.write(this.bytes.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package adapter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A class for the specification of an adapter: which interface is adapted to which, and which method (called how
+ * many times in a row) stands in for each method of the target interface.  For example, an adapter that behaves like
+ * TurkeyAdapter is
+ *
+ *     AdapterSpec.adapt(Turkey.class).to(Duck.class).map("quack", "gobble").map("fly", "fly", 5).generate()
+ *
+ * Its fly() calls turkey.fly() five times in a row: the same SPURTS_PER_FLIGHT spurts TurkeyAdapter asks for with
+ * turkey.fly(SPURTS_PER_FLIGHT), since mappings only name methods without arguments.
+ *
+ * generate() hands the specification to the AdapterGenerator, which writes the adapter class at runtime.
+ *
+ * @param <S> Type being adapted (the adaptee).
+ * @param <T> Interface the adapter implements (the target).
+ */
+public class AdapterSpec<S, T> {
+
+    private final Class<S> source;
+    private final Class<T> target;
+    private final Map<String, Mapping> mappings;
+
+    private AdapterSpec(Class<S> source, Class<T> target){
+        this.source = source;
+        this.target = target;
+        this.mappings = new LinkedHashMap<>();
+    }
+
+    /**
+     * Starts the specification of an adapter for the given type.
+     *
+     * @param source Public type being adapted.
+     * @return A partial specification; call to() next.
+     */
+    public static <S> Source<S> adapt(Class<S> source){
+        return new Source<>(source);
+    }
+
+    /**
+     * Maps a target method to one call of the source method with the same name.
+     *
+     * @param targetMethod Name of the target method.
+     * @return This specification.
+     */
+    public AdapterSpec<S, T> map(String targetMethod){
+        return this.map(targetMethod, targetMethod, 1);
+    }
+
+    /**
+     * Maps a target method to one call of the given source method.
+     *
+     * @param targetMethod Name of the target method.
+     * @param sourceMethod Name of the source method called in its place.
+     * @return This specification.
+     */
+    public AdapterSpec<S, T> map(String targetMethod, String sourceMethod){
+        return this.map(targetMethod, sourceMethod, 1);
+    }
+
+    /**
+     * Maps a target method to several calls in a row of the given source method.  The target method's arguments are
+     * passed on to every call, and if it returns a value, the result of the last call is returned.
+     *
+     * @param targetMethod Name of the target method.
+     * @param sourceMethod Name of the source method called in its place.
+     * @param times Number of times to call the source method, from 1 to 1024.
+     * @return This specification.
+     */
+    public AdapterSpec<S, T> map(String targetMethod, String sourceMethod, int times){
+        if (times < 1 || times > 1024){
+            throw new IllegalArgumentException("A method can be repeated between 1 and 1024 times, not " + times);
+        }
+        this.mappings.put(targetMethod, new Mapping(sourceMethod, times));
+        return this;
+    }
+
+    /**
+     * Generates the adapter class and returns a factory wrapping adaptees in new adapters.
+     *
+     * @return Factory creating one adapter per adaptee.
+     * @throws IllegalArgumentException If a target method is unmapped or has no matching source method.
+     */
+    public Function<S, T> generate(){
+        return AdapterGenerator.generate(this);
+    }
+
+    Class<S> getSource(){ return this.source; }
+
+    Class<T> getTarget(){ return this.target; }
+
+    Map<String, Mapping> getMappings(){ return this.mappings; }
+
+    /**
+     * The source method and repeat count that stand in for one target method.
+     */
+    static final class Mapping {
+
+        final String sourceMethod;
+        final int times;
+
+        Mapping(String sourceMethod, int times){
+            this.sourceMethod = sourceMethod;
+            this.times = times;
+        }
+    }
+
+    /**
+     * A specification that knows its source type but not yet its target interface.
+     */
+    public static final class Source<S> {
+
+        private final Class<S> source;
+
+        private Source(Class<S> source){
+            this.source = source;
+        }
+
+        /**
+         * Sets the interface the adapter implements.
+         *
+         * @param target Public interface to adapt to.
+         * @return A specification with no methods mapped yet.
+         */
+        public <T> AdapterSpec<S, T> to(Class<T> target){
+            if (!target.isInterface()){
+                throw new IllegalArgumentException(target.getName() + " is not an interface");
+            }
+            return new AdapterSpec<>(this.source, target);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package adapter;
 
+import java.util.List;
+
 public class Client {
 
     public static void main(String[] args) {
@@ -16,5 +18,10 @@ public class Client {
 
         realDuck.fly();
         fakeDuck.fly();
+
+        // A whole flock of turkeys can be seen as ducks at once, without wrapping each one
+        DuckFlockView flock = new DuckFlockView(List.of(new WildTurkey(), new WildTurkey()));
+        flock.quackAll();
+        flock.flyAll();
     }
 }
@@ -0,0 +1,100 @@
+package adapter;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A class for a flock of turkeys seen as a flock of ducks.  Instead of wrapping every turkey in its own TurkeyAdapter
+ * up front, the view reads through to the underlying list, so it always reflects the list's current contents.
+ *
+ * quackAll() and flyAll() run over the whole flock in one loop without creating any adapters.  flyAll() asks each
+ * turkey for a duck flight's spurts with a single fly(int) call, which a turkey able to fly several spurts at once
+ * may override; WildTurkey doesn't, so for it the saving is the adapters alone.
+ *
+ * Code that needs the flock as a List of Ducks can still iterate the view.  The adapter for each position is created
+ * the first time that position is read and reused afterwards (until a different turkey takes the position), so
+ * iterating the same flock again allocates nothing.
+ */
+public class DuckFlockView extends AbstractList<Duck> implements RandomAccess {
+
+    private final List<? extends Turkey> turkeys;
+    // adapters[i] is the adapter last handed out for position i, or null.  Only a cache: a racing get() at worst
+    // creates a second adapter for the same turkey.
+    private TurkeyAdapter[] adapters;
+
+    /**
+     * Creates a new view presenting the given turkeys as ducks.  The list is not copied.
+     * @param turkeys Turkeys to present as ducks.  Random-access lists (like ArrayList) are walked by index.
+     */
+    public DuckFlockView(List<? extends Turkey> turkeys){
+        this.turkeys = turkeys;
+        this.adapters = new TurkeyAdapter[0];
+    }
+
+    /**
+     * Makes every turkey in the flock quack, in order.
+     */
+    public void quackAll(){
+        if (this.turkeys instanceof RandomAccess){
+            for (int i = 0, n = this.turkeys.size(); i < n; i++){
+                this.turkeys.get(i).gobble();
+            }
+        } else {
+            for (Turkey turkey : this.turkeys){
+                turkey.gobble();
+            }
+        }
+    }
+
+    /**
+     * Makes every turkey in the flock fly the distance of one duck flight, in order.  Each turkey finishes its
+     * flight before the next one takes off, just as if fly() were called on each duck.
+     */
+    public void flyAll(){
+        if (this.turkeys instanceof RandomAccess){
+            for (int i = 0, n = this.turkeys.size(); i < n; i++){
+                this.turkeys.get(i).fly(TurkeyAdapter.SPURTS_PER_FLIGHT);
+            }
+        } else {
+            for (Turkey turkey : this.turkeys){
+                turkey.fly(TurkeyAdapter.SPURTS_PER_FLIGHT);
+            }
+        }
+    }
+
+    /**
+     * Returns the turkey at the given position adapted to a Duck.  The same adapter is returned for as long as the
+     * same turkey is at that position.
+     */
+    @Override
+    public Duck get(int index){
+        Turkey turkey = this.turkeys.get(index);
+        TurkeyAdapter[] adapters = this.adapters;
+        if (index >= adapters.length){
+            adapters = Arrays.copyOf(adapters, Math.max(index + 1, this.turkeys.size()));
+            this.adapters = adapters;
+        }
+        TurkeyAdapter adapter = adapters[index];
+        if (adapter == null || adapter.getTurkey() != turkey){
+            adapter = new TurkeyAdapter(turkey);
+            adapters[index] = adapter;
+        }
+        return adapter;
+    }
+
+    @Override
+    public int size(){
+        return this.turkeys.size();
+    }
+
+    /**
+     * Returns the turkey behind the duck at the given position, without creating an adapter.
+     * @param index Position in the flock.
+     * @return The underlying turkey.
+     */
+    public Turkey turkey(int index){
+        return this.turkeys.get(index);
+    }
+}
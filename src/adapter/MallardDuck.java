@@ -1,5 +1,7 @@
 package adapter;
 
+import sink.Sinks;
+
 /**
  * A class for a mallard duck that implements the Duck interface.  A duck quacks and flies.
  */
@@ -7,11 +9,11 @@ public class MallardDuck implements Duck{
 
     @Override
     public void quack() {
-        System.out.println("Quack!");
+        Sinks.current().emit("Quack!");
     }
 
     @Override
     public void fly() {
-        System.out.println("I'm flying for 500 metres...");
+        Sinks.current().emit("I'm flying for 500 metres...");
     }
 }
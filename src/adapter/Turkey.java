@@ -3,4 +3,15 @@ package adapter;
 public interface Turkey {
 public void gobble();
 public void fly();
+
+/**
+ * Flies the given number of short spurts in a row.  Turkeys that can fly several spurts more cheaply than one at a
+ * time may override this; by default it simply calls fly() that many times.
+ * @param spurts Number of spurts to fly.
+ */
+public default void fly(int spurts){
+    for (int i = 0; i < spurts; i++){
+        this.fly();
+    }
+}
 }
@@ -5,6 +5,9 @@ package adapter;
  */
 public class TurkeyAdapter implements Duck{
 
+    // Turkeys fly in short spurts; this many spurts cover the distance of one duck flight.
+    static final int SPURTS_PER_FLIGHT = 5;
+
     private Turkey turkey;
 
     /**
@@ -15,18 +18,19 @@ public class TurkeyAdapter implements Duck{
         this.turkey = turkey;
     }
 
+    Turkey getTurkey(){ return this.turkey; }
+
     // The quack translation is to call the turkey's gobble method.
     @Override
     public void quack() {
         this.turkey.gobble();
     }
 
-    // Turkeys fly in short spurts.  To map between a Duck's fly() and a Turkey's we must call the
-    // the turkey's method fly() five times to make it fly an equivalent distance.
+    // Turkeys fly in short spurts.  To map between a Duck's fly() and a Turkey's we must make the turkey
+    // fly five spurts to cover an equivalent distance.  Asking for all five at once lets a turkey that can
+    // fly several spurts in one go do so.
     @Override
     public void fly() {
-        for(int i = 0; i < 5; i++ ){
-            this.turkey.fly();
-        }
+        this.turkey.fly(SPURTS_PER_FLIGHT);
     }
 }
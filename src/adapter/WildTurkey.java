@@ -1,14 +1,16 @@
 package adapter;
 
+import sink.Sinks;
+
 public class WildTurkey implements Turkey{
 
     @Override
     public void gobble() {
-        System.out.println("Gobble, gobble!!");
+        Sinks.current().emit("Gobble, gobble!!");
     }
 
     @Override
     public void fly() {
-        System.out.println("I'm flying for 100 metres...");
+        Sinks.current().emit("I'm flying for 100 metres...");
     }
 }
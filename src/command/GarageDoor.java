@@ -1,15 +1,17 @@
 package command;
 
+import sink.Sinks;
+
 /**
  * A class for a garage door.  The garage door can go up or down.
  */
 public class GarageDoor {
 
     public void up(){
-        System.out.println("Garage door is up.");
+        Sinks.current().emit("Garage door is up.");
     }
 
     public void down(){
-        System.out.println("Garage door is down.");
+        Sinks.current().emit("Garage door is down.");
     }
 }
@@ -1,5 +1,7 @@
 package command;
 
+import sink.Sinks;
+
 /**
  * A class for a light in a house.  A light has a location where it is placed and can be turned on or off.
  */
@@ -12,10 +14,10 @@ public class Light {
     }
 
     public void on(){
-        System.out.println("The light in the " + this.location + " is on.");
+        Sinks.current().emit("The light in the " + this.location + " is on.");
     }
 
     public void off(){
-        System.out.println("The light in the " + this.location + " is on.");
+        Sinks.current().emit("The light in the " + this.location + " is on.");
     }
 }
@@ -1,10 +1,17 @@
 package command;
 
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
 /**
  * A class for a home remote control that stores four commands.
  */
 public class RemoteControl {
 
+    private static final Counter BUTTONS_PUSHED = Metrics.counter("remote.buttons.pushed");
+    private static final LatencyHistogram COMMAND_LATENCY = Metrics.histogram("remote.command.latency");
+
     public Command[] onCommands;
 
     /**
@@ -41,7 +48,10 @@ public class RemoteControl {
      */
     public void buttonPushed(int slot){
         if (slot < 4 && slot >= 0){
+            BUTTONS_PUSHED.increment();
+            long start = COMMAND_LATENCY.start();
             this.onCommands[slot].execute();
+            COMMAND_LATENCY.recordSince(start);
         }
     }
 }
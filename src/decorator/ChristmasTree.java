@@ -1,5 +1,33 @@
 package decorator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 public interface ChristmasTree {
-    public String decorate();
+
+    /**
+     * Returns the description of the decorated tree.  Kept for compatibility; it streams the description into a new
+     * StringBuilder with decorate(Appendable), so decorators no longer build a String each.
+     *
+     * @return The tree's description, e.g. "Pine christmas tree with lights".
+     */
+    public default String decorate(){
+        StringBuilder description = new StringBuilder();
+        try {
+            this.decorate(description);
+        } catch (IOException e) {
+            // A StringBuilder never throws, but the Appendable contract says it may.
+            throw new UncheckedIOException(e);
+        }
+        return description.toString();
+    }
+
+    /**
+     * Appends the description of the decorated tree to the given buffer, without building any intermediate Strings.
+     * Callers can reuse one buffer for many trees.
+     *
+     * @param out Buffer or stream to append the description to.
+     * @throws IOException If appending to out fails.
+     */
+    public void decorate(Appendable out) throws IOException;
 }
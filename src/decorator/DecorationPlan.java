@@ -0,0 +1,93 @@
+package decorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * A class for a compiled decorator chain.  Calling decorate() on a chain of N decorators recurses N levels deep and
+ * grows its buffer as it goes.  A plan walks the chain once, iteratively, and keeps each decorator's part of the
+ * description in order, so the whole description can then be rendered in a single pass into one buffer of exactly
+ * the right size, however deep the chain.
+ *
+ * A plan is a snapshot: changing a decorator's wrappee after compiling does not change the plan.
+ */
+public final class DecorationPlan {
+
+    private final String[] parts;
+    private final int length;
+
+    private DecorationPlan(String[] parts, int length){
+        this.parts = parts;
+        this.length = length;
+    }
+
+    /**
+     * Compiles the given tree into a plan.  The chain is walked with a loop rather than recursion, so chains thousands
+     * of decorators deep can be compiled without overflowing the stack.
+     *
+     * @param tree Outermost tree (usually a Decorator) of the chain to compile.
+     * @return A plan rendering the same description as tree.decorate().
+     */
+    public static DecorationPlan compile(ChristmasTree tree){
+        ArrayList<String> decorations = new ArrayList<>();
+        ChristmasTree current = tree;
+        while (current instanceof Decorator){
+            Decorator decorator = (Decorator) current;
+            decorations.add(decorator.decoration());
+            current = decorator.wrappee;
+        }
+
+        // The innermost tree's description comes first, followed by the decorations from the inside out.
+        String[] parts = new String[decorations.size() + 1];
+        parts[0] = current.decorate();
+        int length = parts[0].length();
+        for (int i = 1; i < parts.length; i++){
+            parts[i] = decorations.get(decorations.size() - i);
+            length += parts[i].length();
+        }
+        return new DecorationPlan(parts, length);
+    }
+
+    /**
+     * Renders the description of the compiled tree.
+     *
+     * @return The same description the tree's decorate() method returns.
+     */
+    public String render(){
+        StringBuilder description = new StringBuilder(this.length);
+        for (int i = 0; i < this.parts.length; i++){
+            description.append(this.parts[i]);
+        }
+        return description.toString();
+    }
+
+    /**
+     * Appends the description of the compiled tree to the given buffer in a single pass.
+     *
+     * @param out Buffer or stream to append the description to.
+     * @throws IOException If appending to out fails.
+     */
+    public void render(Appendable out) throws IOException {
+        for (int i = 0; i < this.parts.length; i++){
+            out.append(this.parts[i]);
+        }
+    }
+
+    /**
+     * Returns the length of the description this plan renders, so callers can size their buffers up front.
+     *
+     * @return Number of characters in the rendered description.
+     */
+    public int length(){
+        return this.length;
+    }
+
+    /**
+     * Returns the number of decorators in the compiled chain.
+     *
+     * @return Depth of the compiled chain.
+     */
+    public int depth(){
+        return this.parts.length - 1;
+    }
+}
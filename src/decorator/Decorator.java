@@ -1,5 +1,7 @@
 package decorator;
 
+import java.io.IOException;
+
 /**
  * An abstract class for a tree Decorator requiring that all subclasses implement the ChristmasTree interface.  A Decorator has a reference to a ChristmasTree object,
  * which it wraps.
@@ -16,4 +18,23 @@ public abstract class Decorator implements ChristmasTree{
     public Decorator(ChristmasTree wrappee){
         this.wrappee = wrappee;
     }
+
+    /**
+     * Appends the description of the wrapped tree, followed by this decorator's decoration.
+     *
+     * @param out Buffer or stream to append the description to.
+     * @throws IOException If appending to out fails.
+     */
+    @Override
+    public void decorate(Appendable out) throws IOException {
+        this.wrappee.decorate(out);
+        out.append(this.decoration());
+    }
+
+    /**
+     * Returns the text this decorator adds to the description of the tree it wraps, e.g. " with lights".
+     *
+     * @return This decorator's part of the tree's description.
+     */
+    public abstract String decoration();
 }
@@ -1,12 +1,21 @@
 package decorator;
 
+import java.io.IOException;
+
 /**
  * A class for a basic pine christmas tree.
  */
 public class PineChristmasTree implements ChristmasTree{
 
+    private static final String DESCRIPTION = "Pine christmas tree";
+
     @Override
     public String decorate(){
-        return "Pine christmas tree";
+        return DESCRIPTION;
+    }
+
+    @Override
+    public void decorate(Appendable out) throws IOException {
+        out.append(DESCRIPTION);
     }
 }
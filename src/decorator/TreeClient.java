@@ -1,12 +1,31 @@
 package decorator;
 
+import java.io.IOException;
+
 public class TreeClient {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         ChristmasTree myTree = new TreeTopper(new TreeLights(new PineChristmasTree()));
         ChristmasTree yourTree = new TreeTopper(new PineChristmasTree());
 
-        System.out.println("Let's decorate my tree: " + myTree.decorate());
-        System.out.println("Let's decorate your tree: " + yourTree.decorate());
+        // Trees write their descriptions straight into one buffer, which we reuse for every line
+        StringBuilder line = new StringBuilder(128);
+
+        line.append("Let's decorate my tree: ");
+        myTree.decorate(line);
+        System.out.println(line);
+
+        line.setLength(0);
+        line.append("Let's decorate your tree: ");
+        yourTree.decorate(line);
+        System.out.println(line);
+
+        // Decorated trees never change, so a factory can share one tree between everybody who wants the same one
+        TreeFactory trees = new TreeFactory(1024);
+        ChristmasTree ourTree = trees.withTopper(trees.withLights(trees.pine()));
+        ChristmasTree theirTree = trees.withTopper(trees.withLights(trees.pine()));
+
+        System.out.println("Let's decorate our tree: " + ourTree.decorate());
+        System.out.println("Is their tree the same tree? " + (ourTree == theirTree));
     }
 }
@@ -0,0 +1,212 @@
+package decorator;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A class for a hash-consing factory of decorated christmas trees.  Decorator stacks never change once built, so
+ * there is no need to build the same stack twice: the factory hands out one shared, canonical instance for every
+ * structurally identical stack and remembers each instance's description, so asking for a tree that was built before
+ * costs a lookup instead of allocating decorators and building strings.
+ *
+ * Two stacks are identical when they apply the same decorator types, in the same order, to the same base tree.
+ * Because every tree handed out is itself canonical, a stack is identified by its outermost decorator type and the
+ * canonical tree it wraps, so trees passed to wrap() should come from the same factory.
+ *
+ * The factory holds at most a fixed number of trees; once full, the trees created longest ago are evicted.  An evicted
+ * tree still works, but asking for it again creates a new canonical instance.
+ */
+public class TreeFactory {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<Key, CanonicalTree> trees;
+    private final ConcurrentLinkedQueue<CanonicalTree> creationOrder;
+    private final AtomicInteger size;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Creates a factory that caches at most the given number of trees.
+     *
+     * @param maxSize Maximum number of canonical trees kept at once.
+     */
+    public TreeFactory(int maxSize){
+        this.maxSize = maxSize;
+        this.trees = new ConcurrentHashMap<>();
+        this.creationOrder = new ConcurrentLinkedQueue<>();
+        this.size = new AtomicInteger();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Returns the canonical undecorated pine tree.
+     *
+     * @return A shared PineChristmasTree.
+     */
+    public ChristmasTree pine(){
+        return this.canonical(new Key(PineChristmasTree.class, null), PineChristmasTree::new);
+    }
+
+    /**
+     * Returns the canonical tree for the given tree with lights added.
+     *
+     * @param tree Canonical tree from this factory to decorate.
+     * @return A shared tree equivalent to new TreeLights(tree).
+     */
+    public ChristmasTree withLights(ChristmasTree tree){
+        return this.wrap(TreeLights.class, TreeLights::new, tree);
+    }
+
+    /**
+     * Returns the canonical tree for the given tree with a topper added.
+     *
+     * @param tree Canonical tree from this factory to decorate.
+     * @return A shared tree equivalent to new TreeTopper(tree).
+     */
+    public ChristmasTree withTopper(ChristmasTree tree){
+        return this.wrap(TreeTopper.class, TreeTopper::new, tree);
+    }
+
+    /**
+     * Returns the canonical tree for the given tree wrapped in a decorator of the given type.  The decorator is only
+     * constructed if the factory has no such tree yet.
+     *
+     * @param type Type of decorator to add.
+     * @param decorator Creates a decorator of the given type wrapping the tree passed to it.
+     * @param tree Canonical tree from this factory to decorate.
+     * @return A shared tree equivalent to decorator.apply(tree).
+     */
+    public ChristmasTree wrap(Class<? extends Decorator> type, Function<ChristmasTree, ? extends Decorator> decorator,
+                              ChristmasTree tree){
+        return this.canonical(new Key(type, tree), () -> decorator.apply(tree));
+    }
+
+    private ChristmasTree canonical(Key key, Supplier<? extends ChristmasTree> constructor){
+        CanonicalTree tree = this.trees.get(key);
+        if (tree != null){
+            this.hits.increment();
+            return tree;
+        }
+
+        // Racing threads may all miss the get() above, but only the one whose mapping function runs has built the tree;
+        // the others found it already there.
+        boolean[] built = new boolean[1];
+        tree = this.trees.computeIfAbsent(key, k -> {
+            built[0] = true;
+            this.misses.increment();
+            CanonicalTree created = new CanonicalTree(k, constructor.get());
+            this.creationOrder.offer(created);
+            this.size.incrementAndGet();
+            return created;
+        });
+        if (!built[0]){
+            this.hits.increment();
+            return tree;
+        }
+        this.evictOverflow();
+        return tree;
+    }
+
+    private void evictOverflow(){
+        while (this.size.get() > this.maxSize){
+            CanonicalTree oldest = this.creationOrder.poll();
+            if (oldest == null){
+                return;
+            }
+            // Only evict the very instance that was queued: if its key was evicted before and has been built again
+            // since, the newer tree has an entry of its own further back in the queue.
+            if (this.trees.remove(oldest.key, oldest)){
+                this.size.decrementAndGet();
+                this.evictions.increment();
+            }
+        }
+    }
+
+    public long getHits(){ return this.hits.sum(); }
+
+    public long getMisses(){ return this.misses.sum(); }
+
+    public long getEvictions(){ return this.evictions.sum(); }
+
+    public int size(){ return this.size.get(); }
+
+    /**
+     * Returns the fraction of requests that were answered with a tree the factory had already built.
+     *
+     * @return Hit rate between 0 and 1, or 0 if nothing has been requested yet.
+     */
+    public double hitRate(){
+        long hits = this.hits.sum();
+        long total = hits + this.misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Identifies a decorator stack by its outermost type and the canonical tree that type wraps.
+     */
+    private static final class Key {
+
+        private final Class<?> type;
+        private final ChristmasTree wrappee;
+
+        Key(Class<?> type, ChristmasTree wrappee){
+            this.type = type;
+            this.wrappee = wrappee;
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if (!(o instanceof Key)){
+                return false;
+            }
+            Key other = (Key) o;
+            // Wrappees are canonical, so identity is structural equality.
+            return this.type == other.type && this.wrappee == other.wrappee;
+        }
+
+        @Override
+        public int hashCode(){
+            return 31 * this.type.hashCode() + System.identityHashCode(this.wrappee);
+        }
+    }
+
+    /**
+     * A canonical tree handed out by the factory.  It delegates to the tree it was built from and remembers that
+     * tree's description the first time it is asked for it.  Canonical trees are only ever equal to themselves.
+     */
+    private static final class CanonicalTree implements ChristmasTree {
+
+        private final Key key;
+        private final ChristmasTree tree;
+        private volatile String description;
+
+        CanonicalTree(Key key, ChristmasTree tree){
+            this.key = key;
+            this.tree = tree;
+        }
+
+        @Override
+        public String decorate(){
+            String description = this.description;
+            if (description == null){
+                // Racing threads may both build the description, but they build the same one.
+                description = this.tree.decorate();
+                this.description = description;
+            }
+            return description;
+        }
+
+        @Override
+        public void decorate(Appendable out) throws IOException {
+            out.append(this.decorate());
+        }
+    }
+}
@@ -10,7 +10,7 @@ public class TreeLights extends Decorator{
     }
 
     @Override
-    public String decorate() {
-        return this.wrappee.decorate() + " with lights";
+    public String decoration() {
+        return " with lights";
     }
 }
@@ -10,7 +10,7 @@ public class TreeTopper extends Decorator{
     }
 
     @Override
-    public String decorate(){
-        return this.wrappee.decorate() + " with tree topper";
+    public String decoration() {
+        return " with tree topper";
     }
 }
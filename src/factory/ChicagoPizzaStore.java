@@ -9,4 +9,9 @@ public class ChicagoPizzaStore extends PizzaStore{
             default -> new ChicagoCheesePizza();
         };
     }
+
+    @Override
+    public String getStyle() {
+        return "Chicago";
+    }
 }
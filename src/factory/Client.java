@@ -2,7 +2,7 @@ package factory;
 
 public class Client {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         PizzaStore nyc = new NYPizzaStore();
         PizzaStore chi = new ChicagoPizzaStore();
 
@@ -11,5 +11,18 @@ public class Client {
 
         //Jessica's order
         chi.orderPizza("pepperoni");
+
+        // At the weekend orders go through a router in front of every franchise, which picks the store
+        OrderRouter router = new OrderRouter(new LeastLoadedPolicy());
+        router.addStore(new NYPizzaStore(), 8);
+        router.addStore(new NYPizzaStore(), 8);
+        router.addStore(new ChicagoPizzaStore(), 8);
+        router.start();
+
+        router.submit(new PizzaOrder("Louis", "cheese", "NY"));
+        router.submit(new PizzaOrder("Donna", "pepperoni", "Chicago"));
+        router.submit(new PizzaOrder("Mike", "cheese"));
+
+        router.shutdown();
     }
 }
@@ -0,0 +1,87 @@
+package factory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A routing policy that sends every order from the same customer to the same store, using a consistent hash ring.
+ * Each store is placed on the ring at several virtual points so customers spread evenly, and adding a store only
+ * moves the customers that land next to its points.  If a customer's store can't make the order (wrong style), the
+ * next eligible store clockwise on the ring is used.
+ */
+public class ConsistentHashPolicy implements RoutingPolicy {
+
+    private static final int VIRTUAL_NODES = 64;
+
+    private volatile Ring ring = new Ring(List.of());
+
+    @Override
+    public int selectStore(PizzaOrder order, List<StoreWorker> workers) {
+        Ring ring = this.ring;
+        if (ring.size != workers.size()){
+            ring = this.rebuild(workers);
+        }
+        if (ring.hashes.length == 0){
+            return -1;
+        }
+
+        int start = Arrays.binarySearch(ring.hashes, mix(order.getCustomer().hashCode()));
+        if (start < 0){
+            start = -start - 1;
+        }
+        for (int i = 0; i < ring.hashes.length; i++){
+            int worker = ring.owners[(start + i) % ring.hashes.length];
+            if (workers.get(worker).canMake(order)){
+                return worker;
+            }
+        }
+        return -1;
+    }
+
+    private synchronized Ring rebuild(List<StoreWorker> workers){
+        if (this.ring.size != workers.size()){
+            this.ring = new Ring(workers);
+        }
+        return this.ring;
+    }
+
+    // Spreads a 32-bit hash over 64 bits (the finalizer from MurmurHash3) so nearby keys land far apart on the ring.
+    private static long mix(long h){
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * The sorted points of the hash ring and the index of the worker owning each point.
+     */
+    private static class Ring {
+
+        final int size;
+        final long[] hashes;
+        final int[] owners;
+
+        Ring(List<StoreWorker> workers){
+            int points = workers.size() * VIRTUAL_NODES;
+            long[] keys = new long[points];
+            for (int w = 0; w < workers.size(); w++){
+                for (int v = 0; v < VIRTUAL_NODES; v++){
+                    // Pack the point's hash in the high bits and its worker in the low bits so one sort orders both.
+                    keys[w * VIRTUAL_NODES + v] = (mix(w * 31L + v * 1_000_003L) & 0xFFFF_FFFF_0000_0000L) | w;
+                }
+            }
+            Arrays.sort(keys);
+
+            this.size = workers.size();
+            this.hashes = new long[points];
+            this.owners = new int[points];
+            for (int i = 0; i < points; i++){
+                this.hashes[i] = keys[i] & 0xFFFF_FFFF_0000_0000L;
+                this.owners[i] = (int) (keys[i] & 0xFFFF_FFFFL);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package factory;
+
+import java.util.List;
+
+/**
+ * A routing policy that sends each order to the eligible store with the fewest orders queued, relative to its
+ * capacity.
+ */
+public class LeastLoadedPolicy implements RoutingPolicy {
+
+    @Override
+    public int selectStore(PizzaOrder order, List<StoreWorker> workers) {
+        int best = -1;
+        double bestLoad = Double.MAX_VALUE;
+        for (int i = 0; i < workers.size(); i++){
+            StoreWorker worker = workers.get(i);
+            double load = (double) worker.getLoad() / worker.getCapacity();
+            if (worker.canMake(order) && load < bestLoad){
+                best = i;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+}
@@ -9,4 +9,9 @@ public class NYPizzaStore extends PizzaStore{
             default -> new NYCheesePizza();
         };
     }
+
+    @Override
+    public String getStyle() {
+        return "NY";
+    }
 }
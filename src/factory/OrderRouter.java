@@ -0,0 +1,145 @@
+package factory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import metrics.Metrics;
+
+/**
+ * A class for an order router that sits in front of many pizza stores.  Clients submit orders to the router rather
+ * than to a particular store; a pluggable RoutingPolicy chooses the store, and each store runs on its own worker
+ * thread with a bounded queue.  Idle stores steal queued orders from busy stores of the same style.
+ */
+public class OrderRouter {
+
+    private final RoutingPolicy policy;
+    private final ArrayList<StoreWorker> workers;
+    private final List<StoreWorker> view;
+    private final ArrayList<Thread> threads;
+    private final AtomicInteger submitting;
+    private volatile boolean running;
+
+    /**
+     * Creates a router with no stores that routes orders using the given policy.
+     *
+     * @param policy Policy used to choose the store for each order.
+     */
+    public OrderRouter(RoutingPolicy policy){
+        this.policy = policy;
+        this.workers = new ArrayList<>();
+        this.view = Collections.unmodifiableList(this.workers);
+        this.threads = new ArrayList<>();
+        this.submitting = new AtomicInteger();
+    }
+
+    /**
+     * Adds a store to the router.  Stores can only be added before the router is started.
+     *
+     * @param store Store to add.
+     * @param capacity Maximum number of orders the store may have queued at once.
+     */
+    public void addStore(PizzaStore store, int capacity){
+        if (this.running){
+            throw new IllegalStateException("Stores must be added before the router is started");
+        }
+        this.workers.add(new StoreWorker(store, capacity, this));
+    }
+
+    /**
+     * Starts one worker thread per store, and reports the router's queue depth as the "orderrouter.queue.depth" gauge.
+     */
+    public void start(){
+        Metrics.gauge("orderrouter.queue.depth", this::getQueueDepth);
+        this.running = true;
+        for (int i = 0; i < this.workers.size(); i++){
+            Thread thread = new Thread(this.workers.get(i), "pizza-store-" + i);
+            thread.start();
+            this.threads.add(thread);
+        }
+    }
+
+    /**
+     * Routes an order to a store.  If the store chosen by the policy is full, the order goes to the least loaded
+     * store that can make it instead.
+     *
+     * @param order Order to route.
+     * @return True iff a store accepted the order, false if every store that can make it is full or the router is
+     *         not running (not started yet, or shut down).
+     */
+    public boolean submit(PizzaOrder order){
+        if (!this.running){
+            return false;
+        }
+        // Counted while in flight, so the workers don't finish until every accepted order has reached a queue.
+        this.submitting.incrementAndGet();
+        try {
+            if (!this.running){
+                return false;
+            }
+            return this.route(order);
+        } finally {
+            this.submitting.decrementAndGet();
+        }
+    }
+
+    private boolean route(PizzaOrder order){
+        int chosen = this.policy.selectStore(order, this.view);
+        if (chosen >= 0 && this.workers.get(chosen).offer(order)){
+            return true;
+        }
+
+        StoreWorker fallback = null;
+        for (int i = 0; i < this.workers.size(); i++){
+            StoreWorker worker = this.workers.get(i);
+            if (worker.canMake(order) && (fallback == null || worker.getLoad() < fallback.getLoad())){
+                fallback = worker;
+            }
+        }
+        return fallback != null && fallback.offer(order);
+    }
+
+    /**
+     * Stops accepting work, waits for every queued order to be made and then stops the worker threads.
+     *
+     * @throws InterruptedException If interrupted while waiting for the stores to finish.
+     */
+    public void shutdown() throws InterruptedException {
+        this.running = false;
+        for (Thread thread : this.threads){
+            thread.join();
+        }
+    }
+
+    public boolean isRunning(){ return this.running; }
+
+    /**
+     * Returns the number of orders queued at, or being made by, every store in the router.  Each store's load is read
+     * separately, so the total may be slightly off while orders are moving.
+     *
+     * @return The router's total load.
+     */
+    public int getQueueDepth(){
+        int depth = 0;
+        for (int i = 0; i < this.workers.size(); i++){
+            depth += this.workers.get(i).getLoad();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns whether orders may still arrive at the stores: the router is running, or a submit() that started
+     * before shutdown is still placing its order.
+     */
+    boolean hasWorkComing(){
+        return this.running || this.submitting.get() > 0;
+    }
+
+    /**
+     * Returns a read-only view of the workers for every store in the router, in the order they were added.
+     *
+     * @return The router's store workers.
+     */
+    public List<StoreWorker> getWorkers(){ return this.view; }
+}
@@ -1,5 +1,6 @@
 package factory;
 import java.util.ArrayList;
+import sink.Sinks;
 
 public abstract class Pizza {
 
@@ -21,13 +22,13 @@ public abstract class Pizza {
             info += " and " + ingredient;
         }
 
-        System.out.println(info);
+        Sinks.current().emit(info);
     }
 
     public void bake(){
-        System.out.println("Baking pizza...");
+        Sinks.current().emit("Baking pizza...");
     }
 
-    public void box(){ System.out.println("Boxing pizza..."); }
+    public void box(){ Sinks.current().emit("Boxing pizza..."); }
 
 }
@@ -0,0 +1,46 @@
+package factory;
+
+/**
+ * A class for a customer's pizza order.  An order names the customer, the type of pizza and, optionally, the
+ * regional style it must be made in.  An order without a style can be made by any store.
+ */
+public class PizzaOrder {
+
+    private final String customer;
+    private final String type;
+    private final String style;
+
+    /**
+     * Creates an order that any store can make.
+     *
+     * @param customer Name of the customer placing the order.
+     * @param type Type of pizza ordered, e.g. "pepperoni".
+     * @throws IllegalArgumentException If type is null.
+     */
+    public PizzaOrder(String customer, String type){
+        this(customer, type, null);
+    }
+
+    /**
+     * Creates an order that must be made by a store of the given style.
+     *
+     * @param customer Name of the customer placing the order.
+     * @param type Type of pizza ordered, e.g. "pepperoni".
+     * @param style Style of store that must make the pizza, or null if any store will do.
+     * @throws IllegalArgumentException If type is null.
+     */
+    public PizzaOrder(String customer, String type, String style){
+        if (type == null){
+            throw new IllegalArgumentException("An order needs a type of pizza");
+        }
+        this.customer = customer;
+        this.type = type;
+        this.style = style;
+    }
+
+    public String getCustomer(){ return this.customer; }
+
+    public String getType(){ return this.type; }
+
+    public String getStyle(){ return this.style; }
+}
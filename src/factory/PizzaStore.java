@@ -1,16 +1,33 @@
 package factory;
 
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
     public abstract class PizzaStore {
 
+        private static final Counter ORDERS = Metrics.counter("pizzastore.orders");
+        private static final LatencyHistogram ORDER_LATENCY = Metrics.histogram("pizzastore.order.latency");
+
         public Pizza orderPizza(String type){
+            long start = ORDER_LATENCY.start();
             Pizza pizza = this.makePizza(type);
 
             pizza.prepare();
             pizza.bake();
             pizza.box();
 
+            ORDERS.increment();
+            ORDER_LATENCY.recordSince(start);
             return pizza;
         }
 
         public abstract Pizza makePizza(String type);
+
+        /**
+         * Returns the regional style of pizza this store makes, e.g. "NY" or "Chicago".
+         *
+         * @return The style of this store's pizzas.
+         */
+        public abstract String getStyle();
     }
@@ -0,0 +1,19 @@
+package factory;
+
+import java.util.List;
+
+/**
+ * An interface for the policy an OrderRouter uses to decide which store an incoming order is sent to.
+ */
+public interface RoutingPolicy {
+
+    /**
+     * Chooses the store that should make the given order.  Implementations must only choose a worker that can make
+     * the order, and return -1 if there is none.
+     *
+     * @param order Order to be routed.
+     * @param workers Workers of all the stores known to the router.
+     * @return Index into workers of the chosen store, or -1 if no store can make the order.
+     */
+    public int selectStore(PizzaOrder order, List<StoreWorker> workers);
+}
@@ -0,0 +1,159 @@
+package factory;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import sink.Sinks;
+
+/**
+ * A class for the worker that runs a single PizzaStore behind an OrderRouter.  A worker has a bounded queue of
+ * orders routed to it and makes them one at a time.  When its own queue is empty it steals the most recently queued
+ * order from a busy store of the same style, so idle ovens never sit next to a backlog they could help with.
+ */
+public class StoreWorker implements Runnable {
+
+    private static final long IDLE_PARK_NANOS = 50_000;
+
+    private final PizzaStore store;
+    private final int capacity;
+    private final OrderRouter router;
+    private final ConcurrentLinkedDeque<PizzaOrder> queue;
+    private final AtomicInteger load;
+    private final LongAdder completed;
+    private final LongAdder failed;
+    private final LongAdder stolen;
+
+    /**
+     * Creates a worker for the given store.
+     *
+     * @param store Store that makes the pizzas for the orders routed to this worker.
+     * @param capacity Maximum number of orders that may be queued or in the oven at once.
+     * @param router Router this worker belongs to, and whose other workers it may steal from.
+     */
+    StoreWorker(PizzaStore store, int capacity, OrderRouter router){
+        this.store = store;
+        this.capacity = capacity;
+        this.router = router;
+        this.queue = new ConcurrentLinkedDeque<>();
+        this.load = new AtomicInteger();
+        this.completed = new LongAdder();
+        this.failed = new LongAdder();
+        this.stolen = new LongAdder();
+    }
+
+    public PizzaStore getStore(){ return this.store; }
+
+    /**
+     * Returns the number of orders currently queued at, or being made by, this store.
+     *
+     * @return The store's current load.
+     */
+    public int getLoad(){ return this.load.get(); }
+
+    public int getCapacity(){ return this.capacity; }
+
+    public long getCompleted(){ return this.completed.sum(); }
+
+    public long getFailed(){ return this.failed.sum(); }
+
+    public long getStolen(){ return this.stolen.sum(); }
+
+    /**
+     * Informs the caller if this store is able to make the given order, i.e. the order has no style or the style
+     * matches this store's.
+     *
+     * @param order Order to check.
+     * @return True iff this store can make the order.
+     */
+    public boolean canMake(PizzaOrder order){
+        return order.getStyle() == null || order.getStyle().equals(this.store.getStyle());
+    }
+
+    /**
+     * Queues the given order at this store if it has room for it.
+     *
+     * @param order Order to queue.
+     * @return True iff the order was accepted.
+     */
+    boolean offer(PizzaOrder order){
+        int current;
+        do {
+            current = this.load.get();
+            if (current >= this.capacity){
+                return false;
+            }
+        } while (!this.load.compareAndSet(current, current + 1));
+
+        this.queue.offerFirst(order);
+        return true;
+    }
+
+    /**
+     * Makes orders until the router shuts down and every queue this worker can help with is empty.  Orders are taken
+     * from the tail of this worker's own queue (oldest first) and stolen from the head of a victim's queue (newest
+     * first) so the owner and the thief rarely contend for the same end.  An order the store fails to make is counted
+     * and reported, and the worker carries on with the next one.
+     */
+    @Override
+    public void run(){
+        while (true){
+            PizzaOrder order = this.queue.pollLast();
+            if (order == null){
+                order = this.steal();
+            }
+            if (order != null){
+                this.make(order);
+            } else if (this.router.hasWorkComing()){
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } else if (this.queue.isEmpty()){
+                // Checked again now that no more orders can arrive: one may have been queued since the last poll.
+                return;
+            }
+        }
+    }
+
+    private void make(PizzaOrder order){
+        try {
+            this.store.orderPizza(order.getType());
+            this.completed.increment();
+        } catch (RuntimeException e) {
+            this.failed.increment();
+            Sinks.current().emit("Couldn't make " + order.getCustomer() + "'s " + order.getType() + " pizza: " + e);
+        } finally {
+            // Always give the slot back, or the router keeps counting an order nobody is making.
+            this.load.decrementAndGet();
+        }
+    }
+
+    /**
+     * Takes the newest order from the busiest store of the same style that has more than one order waiting.
+     *
+     * @return A stolen order, or null if there was nothing worth stealing.
+     */
+    private PizzaOrder steal(){
+        List<StoreWorker> workers = this.router.getWorkers();
+        StoreWorker victim = null;
+        for (int i = 0; i < workers.size(); i++){
+            StoreWorker worker = workers.get(i);
+            if (worker != this && worker.getLoad() > 1
+                    && worker.store.getStyle().equals(this.store.getStyle())
+                    && (victim == null || worker.getLoad() > victim.getLoad())){
+                victim = worker;
+            }
+        }
+        if (victim == null){
+            return null;
+        }
+
+        PizzaOrder order = victim.queue.pollFirst();
+        if (order != null){
+            victim.load.decrementAndGet();
+            this.load.incrementAndGet();
+            this.stolen.increment();
+        }
+        return order;
+    }
+}
@@ -0,0 +1,27 @@
+package factory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A routing policy that keeps each style of order on stores of that style, taking turns between them.  Orders
+ * without a style take turns across every store.  Paired with work stealing between stores of the same style, this
+ * keeps a burst of one style from spilling onto stores that can't help with it.
+ */
+public class StyleAffinityPolicy implements RoutingPolicy {
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public int selectStore(PizzaOrder order, List<StoreWorker> workers) {
+        int size = workers.size();
+        int start = Math.floorMod(this.next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++){
+            int candidate = (start + i) % size;
+            if (workers.get(candidate).canMake(order)){
+                return candidate;
+            }
+        }
+        return -1;
+    }
+}
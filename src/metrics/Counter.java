@@ -0,0 +1,27 @@
+package metrics;
+
+/**
+ * A counter that many threads can add to at once.  Adding is meant to be cheap enough to leave on in production; reading
+ * the sum is comparatively slow and is done by reporters, not on the hot path.
+ */
+public interface Counter {
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment();
+
+    /**
+     * Adds the given amount to the counter.
+     *
+     * @param amount Amount to add.
+     */
+    public void add(long amount);
+
+    /**
+     * Returns the total added so far.  Not an atomic snapshot: additions made while summing may or may not be counted.
+     *
+     * @return Current total.
+     */
+    public long sum();
+}
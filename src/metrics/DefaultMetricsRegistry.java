@@ -0,0 +1,125 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A registry of live metrics.  Every metric is also registered with the platform MBean server as soon as it is
+ * created, under notebook.dps:type=Counter|Histogram|Gauge,name="...", so it can be watched from JConsole or any JMX
+ * client while the program runs.
+ */
+final class DefaultMetricsRegistry implements MetricsRegistry {
+
+    private static final String DOMAIN = "notebook.dps";
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    @Override
+    public Counter counter(String name){
+        return this.counters.computeIfAbsent(name, key -> {
+            Counter counter = new StripedCounter();
+            this.register("Counter", key, (CounterMXBean) counter::sum);
+            return counter;
+        });
+    }
+
+    @Override
+    public LatencyHistogram histogram(String name){
+        return this.histograms.computeIfAbsent(name, key -> {
+            LatencyHistogram histogram = new StripedHistogram();
+            this.register("Histogram", key, new HistogramBean(histogram));
+            return histogram;
+        });
+    }
+
+    @Override
+    public void gauge(String name, Gauge gauge){
+        if (this.gauges.put(name, gauge) == null){
+            this.register("Gauge", name, (GaugeMXBean) () -> this.gauges.get(name).value());
+        }
+    }
+
+    @Override
+    public String snapshot(){
+        Map<String, String> lines = new TreeMap<>();
+        this.counters.forEach((name, counter) -> lines.put(name, "counter " + name + " count=" + counter.sum()));
+        this.histograms.forEach((name, histogram) ->
+                lines.put(name, "histogram " + name + " " + histogram.snapshot()));
+        this.gauges.forEach((name, gauge) -> lines.put(name, "gauge " + name + " value=" + gauge.value()));
+        return String.join("\n", lines.values());
+    }
+
+    private void register(String type, String name, Object bean){
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            this.server.registerMBean(bean, objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            // Another registry in this JVM got there first; its bean stays visible and this metric is simply not
+            // exported.
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register metric " + name, e);
+        }
+    }
+
+    public interface CounterMXBean {
+        public long getCount();
+    }
+
+    public interface GaugeMXBean {
+        public double getValue();
+    }
+
+    public interface HistogramMXBean {
+        public long getCount();
+        public double getMean();
+        public long getMax();
+        public long get50thPercentile();
+        public long get90thPercentile();
+        public long get99thPercentile();
+        public long get999thPercentile();
+    }
+
+    /**
+     * Exposes a histogram over JMX.  Each attribute takes a fresh snapshot, so attributes read one after another may
+     * come from slightly different moments.
+     */
+    private static final class HistogramBean implements HistogramMXBean {
+
+        private final LatencyHistogram histogram;
+
+        HistogramBean(LatencyHistogram histogram){
+            this.histogram = histogram;
+        }
+
+        @Override
+        public long getCount(){ return this.histogram.snapshot().getCount(); }
+
+        @Override
+        public double getMean(){ return this.histogram.snapshot().getMean(); }
+
+        @Override
+        public long getMax(){ return this.histogram.snapshot().getMax(); }
+
+        @Override
+        public long get50thPercentile(){ return this.histogram.snapshot().percentile(0.5); }
+
+        @Override
+        public long get90thPercentile(){ return this.histogram.snapshot().percentile(0.9); }
+
+        @Override
+        public long get99thPercentile(){ return this.histogram.snapshot().percentile(0.99); }
+
+        @Override
+        public long get999thPercentile(){ return this.histogram.snapshot().percentile(0.999); }
+    }
+}
@@ -0,0 +1,15 @@
+package metrics;
+
+/**
+ * A gauge reports a value that is read, rather than recorded, whenever metrics are reported, e.g. the size of a queue.
+ */
+@FunctionalInterface
+public interface Gauge {
+
+    /**
+     * Returns the current value.  Called from reporting threads, so it must be safe to call from any thread.
+     *
+     * @return Current value.
+     */
+    public double value();
+}
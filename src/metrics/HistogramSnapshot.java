@@ -0,0 +1,58 @@
+package metrics;
+
+/**
+ * A class for a point-in-time copy of a LatencyHistogram.  Percentiles are reported as the upper bound of the bucket
+ * they fall in, so they are never understated and are within one bucket width (about 12.5%) of the true value.
+ */
+public final class HistogramSnapshot {
+
+    static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[0], 0, 0, 0);
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max){
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public long getCount(){ return this.count; }
+
+    public long getMax(){ return this.max; }
+
+    public double getMean(){
+        return this.count == 0 ? 0 : (double) this.sum / this.count;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of recorded latencies fall.
+     *
+     * @param fraction Fraction between 0 and 1, e.g. 0.99 for the 99th percentile.
+     * @return Latency in nanoseconds, or 0 if nothing has been recorded.
+     */
+    public long percentile(double fraction){
+        if (this.count == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * this.count));
+        long seen = 0;
+        for (int bucket = 0; bucket < this.counts.length; bucket++){
+            seen += this.counts[bucket];
+            if (seen >= rank){
+                return Math.min(this.max, StripedHistogram.upperBound(bucket));
+            }
+        }
+        return this.max;
+    }
+
+    @Override
+    public String toString(){
+        return String.format("count=%d mean=%.0fns p50=%dns p90=%dns p99=%dns p999=%dns max=%dns", this.count,
+                this.getMean(), this.percentile(0.5), this.percentile(0.9), this.percentile(0.99),
+                this.percentile(0.999), this.max);
+    }
+}
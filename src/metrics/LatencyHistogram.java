@@ -0,0 +1,42 @@
+package metrics;
+
+/**
+ * A histogram of latencies in nanoseconds, recorded into a fixed set of buckets so recording never allocates.
+ *
+ * Callers time an operation with start() and recordSince(), rather than calling System.nanoTime() themselves, so that
+ * with metrics switched off the clock isn't read at all.
+ */
+public interface LatencyHistogram {
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos Latency in nanoseconds; negative values are recorded as 0.
+     */
+    public void record(long nanos);
+
+    /**
+     * Returns the start time of an operation to be timed.
+     *
+     * @return A timestamp to pass to recordSince().
+     */
+    public default long start(){
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time elapsed since the given start().
+     *
+     * @param start Timestamp returned by start().
+     */
+    public default void recordSince(long start){
+        this.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns a copy of the recorded latencies.
+     *
+     * @return Snapshot of this histogram.
+     */
+    public HistogramSnapshot snapshot();
+}
@@ -0,0 +1,101 @@
+package metrics;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import sink.Sinks;
+
+/**
+ * A class holding the MetricsRegistry every component records into.  Components look their metrics up once, into
+ * static final fields, and record into them on the hot path.
+ *
+ * The registry is chosen once, when this class is loaded:
+ *   -Dmetrics.enabled=false              records nothing (every metric is a no-op)
+ *   -Dmetrics.report.seconds=N           also writes a snapshot of every metric to the event sink every N seconds
+ */
+public final class Metrics {
+
+    private static final MetricsRegistry REGISTRY =
+            Boolean.parseBoolean(System.getProperty("metrics.enabled", "true"))
+                    ? new DefaultMetricsRegistry()
+                    : new NoOpMetricsRegistry();
+
+    private static ScheduledExecutorService reporter;
+    private static ScheduledFuture<?> report;
+
+    static {
+        long seconds = Long.getLong("metrics.report.seconds", 0);
+        if (seconds > 0){
+            startReporting(seconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private Metrics(){ }
+
+    public static MetricsRegistry registry(){
+        return REGISTRY;
+    }
+
+    public static Counter counter(String name){
+        return REGISTRY.counter(name);
+    }
+
+    public static LatencyHistogram histogram(String name){
+        return REGISTRY.histogram(name);
+    }
+
+    public static void gauge(String name, Gauge gauge){
+        REGISTRY.gauge(name, gauge);
+    }
+
+    /**
+     * Creates a histogram that isn't registered anywhere and is always live, even when metrics.enabled is false, for
+     * tools that measure latencies themselves, such as load generators.
+     *
+     * @return A new, empty histogram.
+     */
+    public static LatencyHistogram newHistogram(){
+        return new StripedHistogram();
+    }
+
+    /**
+     * Writes a snapshot of every metric to the current event sink at a fixed rate, from a daemon thread, replacing any
+     * earlier schedule.
+     *
+     * @param period Time between snapshots.
+     * @param unit Unit of period.
+     */
+    public static synchronized void startReporting(long period, TimeUnit unit){
+        stopReporting();
+        if (reporter == null){
+            reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        report = reporter.scheduleAtFixedRate(Metrics::report, period, period, unit);
+    }
+
+    /**
+     * Stops the periodic snapshots, if any.
+     */
+    public static synchronized void stopReporting(){
+        if (report != null){
+            report.cancel(false);
+            report = null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of every metric to the current event sink now.
+     */
+    public static void report(){
+        String snapshot = REGISTRY.snapshot();
+        if (!snapshot.isEmpty()){
+            Sinks.current().emit("metrics:\n" + snapshot);
+        }
+    }
+}
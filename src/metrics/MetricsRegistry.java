@@ -0,0 +1,39 @@
+package metrics;
+
+/**
+ * A registry of named metrics.  Asking for a metric by a name already in use returns the existing metric, so
+ * components can share a metric just by using the same name.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Returns the counter with the given name, creating it if needed.
+     *
+     * @param name Dotted name of the counter, e.g. "auctioneer.bids".
+     * @return The counter.
+     */
+    public Counter counter(String name);
+
+    /**
+     * Returns the latency histogram with the given name, creating it if needed.
+     *
+     * @param name Dotted name of the histogram, e.g. "auctioneer.notify.latency".
+     * @return The histogram.
+     */
+    public LatencyHistogram histogram(String name);
+
+    /**
+     * Registers a gauge under the given name, replacing any gauge already registered under it.
+     *
+     * @param name Dotted name of the gauge.
+     * @param gauge Gauge to read when reporting.
+     */
+    public void gauge(String name, Gauge gauge);
+
+    /**
+     * Returns a report of every metric's current value, one line per metric, sorted by name.
+     *
+     * @return The report, or an empty string if there is nothing to report.
+     */
+    public String snapshot();
+}
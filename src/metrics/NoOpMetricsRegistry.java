@@ -0,0 +1,51 @@
+package metrics;
+
+/**
+ * A registry whose metrics do nothing.  Every name maps to the same empty counter and histogram, so once the JIT has
+ * inlined their empty methods, instrumented code costs the same as uninstrumented code.
+ */
+final class NoOpMetricsRegistry implements MetricsRegistry {
+
+    private static final Counter COUNTER = new Counter() {
+        @Override
+        public void increment(){ }
+
+        @Override
+        public void add(long amount){ }
+
+        @Override
+        public long sum(){ return 0; }
+    };
+
+    private static final LatencyHistogram HISTOGRAM = new LatencyHistogram() {
+        @Override
+        public void record(long nanos){ }
+
+        @Override
+        public long start(){ return 0; }
+
+        @Override
+        public void recordSince(long start){ }
+
+        @Override
+        public HistogramSnapshot snapshot(){ return HistogramSnapshot.EMPTY; }
+    };
+
+    @Override
+    public Counter counter(String name){
+        return COUNTER;
+    }
+
+    @Override
+    public LatencyHistogram histogram(String name){
+        return HISTOGRAM;
+    }
+
+    @Override
+    public void gauge(String name, Gauge gauge){ }
+
+    @Override
+    public String snapshot(){
+        return "";
+    }
+}
@@ -0,0 +1,27 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A counter backed by a LongAdder, which spreads contended additions over separate cells instead of having every
+ * thread CAS the same word.
+ */
+final class StripedCounter implements Counter {
+
+    private final LongAdder adder = new LongAdder();
+
+    @Override
+    public void increment(){
+        this.adder.increment();
+    }
+
+    @Override
+    public void add(long amount){
+        this.adder.add(amount);
+    }
+
+    @Override
+    public long sum(){
+        return this.adder.sum();
+    }
+}
@@ -0,0 +1,79 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with log-linear buckets: every power of two is split into eight equal buckets, so a latency is
+ * placed to within 12.5% with a fixed 488 buckets covering everything from 0 to Long.MAX_VALUE nanoseconds.
+ *
+ * Recording is an index computation and one atomic increment.  To keep threads from fighting over the same cache
+ * lines, the buckets are repeated in several stripes and each thread records into the stripe picked by its id; a
+ * snapshot adds the stripes back together.
+ */
+final class StripedHistogram implements LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    @Override
+    public void record(long nanos){
+        long value = Math.max(0, nanos);
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        this.counts.getAndIncrement(stripe * BUCKETS + bucket(value));
+        this.sum.add(value);
+        long max = this.max.get();
+        while (value > max && !this.max.compareAndSet(max, value)){
+            max = this.max.get();
+        }
+    }
+
+    @Override
+    public HistogramSnapshot snapshot(){
+        long[] totals = new long[BUCKETS];
+        long count = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++){
+            for (int bucket = 0; bucket < BUCKETS; bucket++){
+                long n = this.counts.get(stripe * BUCKETS + bucket);
+                totals[bucket] += n;
+                count += n;
+            }
+        }
+        return new HistogramSnapshot(totals, count, this.sum.sum(), this.max.get());
+    }
+
+    /**
+     * Returns the bucket holding the given non-negative value.  Values below 8 get a bucket each; above that, the
+     * bucket is given by the position of the highest set bit and the three bits after it.
+     */
+    static int bucket(long value){
+        if (value < SUB_BUCKETS){
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value that falls in the given bucket.
+     */
+    static long upperBound(int bucket){
+        if (bucket < SUB_BUCKETS){
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long lower = (1L << magnitude) + (subBucket << (magnitude - SUB_BUCKET_BITS));
+        return lower + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,355 @@
+package observer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Observable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import metrics.HistogramSnapshot;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
+/**
+ * A load generator for an Auction.  Several threads submit bids from a pool of bidders to one auctioneer for a fixed
+ * time, with the bids arriving as fast as possible or spaced out according to a chosen distribution.  Every bidder
+ * watches the auction, as in Auction.main(), and times each notification from the moment the bid was handed to the
+ * auctioneer.
+ *
+ * At the end it reports the accepted bids per second, the notification latency percentiles, and every broken
+ * invariant it could detect:
+ *   - lost bids: bids the auctioneer accepted without error but did not keep,
+ *   - duplicate IDs: two kept bids sharing an ID,
+ *   - wrong highest bid: the auctioneer's highest bid differs from the highest bid it accepted,
+ *   - bad notifications: a bid announced to only some bidders, a bid that beat every bid before it announced to
+ *     none, or a bid announced with another bid's ID,
+ *   - errors: exceptions thrown by the auction while receiving a bid.
+ * None of Auctioneer, Bid and Bidder are made thread-safe for this; with more than one thread the harness is
+ * expected to find violations, and with one thread it should find none.
+ *
+ * Usage: java observer.AuctionLoadSimulator [bidders] [threads] [seconds] [arrival] [bids/s per thread]
+ *
+ * arrival is one of max (no waiting between bids), constant (evenly spaced), poisson (exponentially distributed
+ * gaps) or burst (bursts of back-to-back bids with pauses between them averaging the same rate).  Every accepted bid
+ * is kept by the auctioneer, so long runs at high rates need a large heap.
+ */
+public class AuctionLoadSimulator {
+
+    private static final int BURST_SIZE = 100;
+    private static final long SPIN_NANOS = 50_000;
+    private static final String ID_MARKER = "ID: ";
+
+    private enum Arrival { MAX, CONSTANT, POISSON, BURST }
+
+    public static void main(String[] args) throws InterruptedException {
+        int bidderCount = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 5;
+        Arrival arrival = args.length > 3 ? Arrival.valueOf(args[3].toUpperCase()) : Arrival.POISSON;
+        double rate = args.length > 4 ? Double.parseDouble(args[4]) : 50_000;
+
+        System.out.printf("%d bidders, %d threads, %.1f s, %s%n", bidderCount, threads, seconds,
+                arrival == Arrival.MAX ? "bidding as fast as possible"
+                        : String.format("%s arrivals at %.0f bids/s per thread", arrival.name().toLowerCase(), rate));
+
+        Auction auction = new Auction();
+        SimulatedBidder[] bidders = new SimulatedBidder[bidderCount];
+        LatencyHistogram latency = Metrics.newHistogram();
+        for (int i = 0; i < bidderCount; i++){
+            bidders[i] = new SimulatedBidder(latency);
+            auction.addBidder(bidders[i]);
+        }
+
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        HighestSubmitted highest = new HighestSubmitted();
+        long duration = (long) (seconds * 1e9);
+        for (int t = 0; t < threads; t++){
+            workers[t] = new Worker(auction.auctioneer, bidders, highest, arrival, rate, duration, start);
+            running[t] = new Thread(workers[t], "bidding-" + t);
+            running[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : running){
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+
+        report(auction.auctioneer, workers, bidders, latency.snapshot(), elapsed);
+    }
+
+    private static void report(Auctioneer auctioneer, Worker[] workers, SimulatedBidder[] bidders,
+                               HistogramSnapshot latency, double elapsed){
+        long submitted = 0;
+        long accepted = 0;
+        long errors = 0;
+        long badNotifications = 0;
+        int highestAccepted = 0;
+        for (Worker worker : workers){
+            submitted += worker.submitted;
+            accepted += worker.accepted;
+            errors += worker.errors;
+            badNotifications += worker.recorder.badNotifications;
+            highestAccepted = Math.max(highestAccepted, worker.highestAccepted);
+        }
+        for (SimulatedBidder bidder : bidders){
+            badNotifications += bidder.unexpected.get();
+        }
+
+        // Read back what the auctioneer kept.  The bidding threads have been joined, so this sees their final writes.
+        ArrayList<Bid> kept = auctioneer.bids;
+        BitSet ids = new BitSet();
+        long stored = 0;
+        long duplicates = 0;
+        for (Bid bid : kept){
+            if (bid == null){
+                continue;
+            }
+            stored++;
+            if (bid.id < 0 || ids.get(bid.id)){
+                duplicates++;
+            } else {
+                ids.set(bid.id);
+            }
+        }
+        long lost = Math.max(0, accepted - stored);
+        boolean wrongHighest = auctioneer.highestBid != highestAccepted;
+
+        System.out.printf("submitted %d bids, accepted %d (%.0f bids/s)%n", submitted, accepted, accepted / elapsed);
+        System.out.printf("notifications: %s%n", latency);
+        System.out.println("invariant violations:");
+        System.out.printf("  lost bids          %d (%d accepted, %d kept)%n", lost, accepted, stored);
+        System.out.printf("  duplicate IDs      %d%n", duplicates);
+        System.out.printf("  wrong highest bid  %s (auctioneer has %d, highest accepted %d)%n",
+                wrongHighest ? "yes" : "no", auctioneer.highestBid, highestAccepted);
+        System.out.printf("  bad notifications  %d%n", badNotifications);
+        System.out.printf("  errors             %d%n", errors);
+        long violations = lost + duplicates + (wrongHighest ? 1 : 0) + badNotifications + errors;
+        System.out.println(violations == 0 ? "no violations" : violations + " violations");
+    }
+
+    /**
+     * Submits bids to the auctioneer on one thread until its time is up.
+     */
+    private static final class Worker implements Runnable {
+
+        private final Auctioneer auctioneer;
+        private final SimulatedBidder[] bidders;
+        private final HighestSubmitted highest;
+        private final Arrival arrival;
+        private final double meanGapNanos;
+        private final long duration;
+        private final CountDownLatch start;
+        private final Recorder recorder = new Recorder();
+
+        // Written by this worker's thread only, and read after it has been joined.
+        long submitted;
+        long accepted;
+        long errors;
+        int highestAccepted;
+
+        Worker(Auctioneer auctioneer, SimulatedBidder[] bidders, HighestSubmitted highest, Arrival arrival, double rate,
+               long duration, CountDownLatch start){
+            this.auctioneer = auctioneer;
+            this.bidders = bidders;
+            this.highest = highest;
+            this.arrival = arrival;
+            this.meanGapNanos = 1e9 / rate;
+            this.duration = duration;
+            this.start = start;
+        }
+
+        @Override
+        public void run(){
+            try {
+                this.start.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Recorder.CURRENT.set(this.recorder);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long begin = System.nanoTime();
+            long end = begin + this.duration;
+            long nextArrival = begin;
+
+            while (true){
+                long now = waitUntil(nextArrival);
+                if (now >= end){
+                    break;
+                }
+                // Amounts drift upwards over the run, so a steady share of bids beat the highest bid.
+                int amount = (int) ((now - begin) / 1_000) + random.nextInt(1_000) + 1;
+                Bid bid = this.bidders[random.nextInt(this.bidders.length)].makeBid(amount);
+                this.submitted++;
+                long lead = this.highest.submit(amount);
+                this.recorder.expect(bid.id);
+                boolean mustAnnounce = false;
+                try {
+                    this.auctioneer.receiveBid(bid);
+                    this.accepted++;
+                    this.highestAccepted = Math.max(this.highestAccepted, amount);
+                    mustAnnounce = this.highest.stillLeads(lead);
+                } catch (RuntimeException e) {
+                    this.errors++;
+                }
+                this.recorder.check(this.bidders.length, mustAnnounce);
+                nextArrival = this.next(nextArrival, random);
+            }
+        }
+
+        /**
+         * Returns when the next bid is due to arrive.  Arrivals are scheduled from the previous arrival, not from
+         * when the previous bid finished, so a slow auctioneer builds up a backlog instead of quietly lowering the
+         * offered load.
+         */
+        private long next(long previous, ThreadLocalRandom random){
+            switch (this.arrival){
+                case CONSTANT:
+                    return previous + (long) this.meanGapNanos;
+                case POISSON:
+                    return previous + (long) (-Math.log(1 - random.nextDouble()) * this.meanGapNanos);
+                case BURST:
+                    return (this.submitted % BURST_SIZE == 0) ? previous + (long) (this.meanGapNanos * BURST_SIZE)
+                            : previous;
+                default:
+                    return previous;
+            }
+        }
+
+        /**
+         * Waits until the given time, parking for long waits and spinning for short ones.
+         */
+        private static long waitUntil(long time){
+            long now = System.nanoTime();
+            while (now < time){
+                long remaining = time - now;
+                if (remaining > SPIN_NANOS){
+                    LockSupport.parkNanos(remaining - SPIN_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+                now = System.nanoTime();
+            }
+            return now;
+        }
+    }
+
+    /**
+     * Tracks the notifications for the bid a thread is submitting.  The auctioneer notifies bidders on the thread
+     * that submitted the bid, so each bidding thread has a recorder of its own.
+     */
+    private static final class Recorder {
+
+        static final ThreadLocal<Recorder> CURRENT = new ThreadLocal<>();
+
+        private int expectedId;
+        private long submittedAt;
+        private int delivered;
+        long badNotifications;
+
+        void expect(int id){
+            this.expectedId = id;
+            this.delivered = 0;
+            this.submittedAt = System.nanoTime();
+        }
+
+        void delivered(int id){
+            if (id != this.expectedId){
+                this.badNotifications++;
+            }
+            this.delivered++;
+        }
+
+        /**
+         * Checks that the bid just submitted was announced to every bidder or to none, and to every bidder if it had
+         * to be announced.
+         */
+        void check(int bidders, boolean mustAnnounce){
+            if (this.delivered != bidders && (this.delivered != 0 || mustAnnounce)){
+                this.badNotifications++;
+            }
+        }
+    }
+
+    /**
+     * Tracks the highest amount submitted by any thread, to tell which bids the auctioneer had to announce.  A bid
+     * must be announced if it was higher than every bid submitted before it and no bid as high was submitted until it
+     * had been received: however the auctioneer orders concurrent bids, such a bid is then higher than any it could
+     * have received first.
+     *
+     * The highest amount and a count of the bids that matched or beat it share one atomic long, so both are read
+     * and updated together.
+     */
+    private static final class HighestSubmitted {
+
+        private static final long NOT_LEADING = -1;
+
+        private final AtomicLong state = new AtomicLong();
+
+        /**
+         * Records a bid about to be submitted.
+         *
+         * @param amount Amount of the bid, which is positive.
+         * @return A token to pass to stillLeads() if the bid beat every bid submitted so far, or NOT_LEADING.
+         */
+        long submit(int amount){
+            while (true){
+                long current = this.state.get();
+                int max = (int) (current >>> 32);
+                if (amount < max){
+                    return NOT_LEADING;
+                }
+                // A bid as high as the highest also counts, since the auctioneer may receive it before the leader.
+                long next = ((long) amount << 32) | ((current + 1) & 0xFFFF_FFFFL);
+                if (this.state.compareAndSet(current, next)){
+                    return amount > max ? next : NOT_LEADING;
+                }
+            }
+        }
+
+        /**
+         * Returns whether no bid as high as the one with the given token has been submitted since.
+         */
+        boolean stillLeads(long token){
+            return token != NOT_LEADING && this.state.get() == token;
+        }
+    }
+
+    /**
+     * A bidder that, instead of printing notifications, checks which bid they announce and times their delivery.
+     * Notifications that arrive outside any bidding thread, or that name no bid, are counted as unexpected.
+     */
+    private static final class SimulatedBidder extends Bidder {
+
+        private final LatencyHistogram latency;
+        private final AtomicLong unexpected = new AtomicLong();
+
+        SimulatedBidder(LatencyHistogram latency){
+            this.latency = latency;
+        }
+
+        @Override
+        public void update(Observable o, Object arg){
+            long now = System.nanoTime();
+            Recorder recorder = Recorder.CURRENT.get();
+            String message = String.valueOf(arg);
+            int marker = message.lastIndexOf(ID_MARKER);
+            if (recorder == null || marker < 0){
+                this.unexpected.incrementAndGet();
+                return;
+            }
+            int id;
+            try {
+                id = Integer.parseInt(message.substring(marker + ID_MARKER.length()).trim());
+            } catch (NumberFormatException e) {
+                id = -1;
+            }
+            recorder.delivered(id);
+            this.latency.record(now - recorder.submittedAt);
+        }
+    }
+}
@@ -2,12 +2,20 @@ package observer;
 import java.util.ArrayList;
 import java.util.Observable;
 
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
 /**
  * A class for an auctioneer at an auction.  An auctioneer receives bids,
  * keeps track of the highest bid and notifies all bidders a new higher bid
  * has been placed.  The auctioneer is observed by the bidders.
  */
 public class Auctioneer extends Observable {
+    private static final Counter BIDS = Metrics.counter("auctioneer.bids");
+    private static final Counter HIGHER_BIDS = Metrics.counter("auctioneer.bids.higher");
+    private static final LatencyHistogram NOTIFY_LATENCY = Metrics.histogram("auctioneer.notify.latency");
+
     ArrayList<Bid> bids; //list of bids received
     int highestBid;
 
@@ -22,11 +30,15 @@ public class Auctioneer extends Observable {
      * the highest bid is updated and auctioneers are notified.
      */
     public void receiveBid(Bid bid){
+        BIDS.increment();
         this.bids.add(bid);
         if (bid.amount > this.highestBid){
+            HIGHER_BIDS.increment();
             this.highestBid = bid.amount;
+            long start = NOTIFY_LATENCY.start();
             this.setChanged();
             this.notifyObservers("The highest bid is now " + bid.amount + " with ID: " + bid.id);
+            NOTIFY_LATENCY.recordSince(start);
         }
     }
 }
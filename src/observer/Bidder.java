@@ -1,6 +1,7 @@
 package observer;
 import java.util.Observable;
 import java.util.Observer;
+import sink.Sinks;
 
 /**
  * A class for a bidder in an auction. A bidder makes bids and receives updates from an
@@ -20,6 +21,6 @@ public class Bidder implements Observer{
 
     @Override
     public void update(Observable o, Object arg) {
-        System.out.println(arg);
+        Sinks.current().emit(String.valueOf(arg));
     }
 }
@@ -1,23 +1,55 @@
 package singleton;
 
+import java.util.concurrent.atomic.AtomicReference;
+
+import sink.Sinks;
+
 /**
  * A class for a chocolate boiler in a factory with a single boiler.
  *
  * If more than one boiler is instantiated in a program, bad things can happen.  (e.g. the
  * program creates two boiler instances and fills up an full boiler -> overflow!)
+ *
+ * The boiler moves through a fixed cycle of states: it is filled while empty, boiled while full and
+ * drained once boiled.  Each step is a single compare-and-set on the boiler's state, so threads sharing
+ * the boiler can never both fill it, and an out-of-order step is rejected rather than carried out.
  */
 public class ChocolateBoiler {
 
-    private boolean isEmpty;
-    private boolean isBoiled;
-    private static ChocolateBoiler uniqueInstance;
+    /**
+     * The states a boiler cycles through: EMPTY -> FULL -> BOILED -> EMPTY.
+     */
+    public enum State { EMPTY, FULL, BOILED }
+
+    private final AtomicReference<State> state;
+
+    /**
+     * The boilers for factories with several production lines, one per line.  A line's boiler is created the first
+     * time the line asks for it; retiring a line with chocolate still in its boiler is reported.
+     */
+    private static final InstanceRegistry<String, ChocolateBoiler> LINES = new InstanceRegistry<>(
+            line -> new ChocolateBoiler(),
+            (line, boiler) -> {
+                if (!boiler.isEmpty()){
+                    Sinks.current().emit("Boiler for line " + line + " retired while " + boiler.getState());
+                }
+            },
+            1);
 
     /**
      * Private constructor that creates an empty, non-boiled chocolate boiler.
      */
     private ChocolateBoiler(){
-        this.isEmpty = false;
-        this.isBoiled = false;
+        this.state = new AtomicReference<>(State.EMPTY);
+    }
+
+    /**
+     * Holds the unique boiler.  The JVM initializes this class, and so creates the boiler, the first time
+     * getInstance() reads from it, and class initialization is guaranteed to happen exactly once even when
+     * several threads get there at the same time.  After that, getInstance() is a plain static field read.
+     */
+    private static class Holder {
+        static final ChocolateBoiler UNIQUE_INSTANCE = new ChocolateBoiler();
     }
 
     /**
@@ -25,14 +57,62 @@ public class ChocolateBoiler {
      * private constructor is called to create a new one first, then the boiler is returned.
      * Else it just returns the unique boiler.
      *
-     * @return the unique instance of the class, i.e. ChocolateBoiler.uniqueInstance
+     * @return the unique instance of the class, i.e. ChocolateBoiler.Holder.UNIQUE_INSTANCE
      */
     public static ChocolateBoiler getInstance(){
-        if(uniqueInstance == null){
-            uniqueInstance = new ChocolateBoiler();
-        }
-        return uniqueInstance;
+        return Holder.UNIQUE_INSTANCE;
+    }
+
+    /**
+     * A method for accessing the boiler of one production line, for factories with several lines.  Each
+     * line has exactly one boiler, created the first time it is asked for.
+     *
+     * @param line Name of the production line.
+     * @return the unique boiler for the given line.
+     */
+    public static ChocolateBoiler getInstance(String line){
+        return LINES.get(line);
+    }
+
+    /**
+     * Takes a production line out of service.  If the line is used again later it gets a new, empty boiler.
+     *
+     * @param line Name of the production line.
+     */
+    public static void retireLine(String line){
+        LINES.evict(line);
+    }
+
+    /**
+     * Fills the boiler with milk and chocolate, if it is empty.
+     *
+     * @return True iff the boiler was empty and is now full.
+     */
+    public boolean fill(){
+        return this.state.compareAndSet(State.EMPTY, State.FULL);
+    }
+
+    /**
+     * Brings the contents of the boiler to a boil, if it is full and not yet boiled.
+     *
+     * @return True iff the boiler was full and is now boiled.
+     */
+    public boolean boil(){
+        return this.state.compareAndSet(State.FULL, State.BOILED);
+    }
+
+    /**
+     * Drains the boiled mixture out of the boiler, if it has been boiled.
+     *
+     * @return True iff the boiler was boiled and is now empty.
+     */
+    public boolean drain(){
+        return this.state.compareAndSet(State.BOILED, State.EMPTY);
     }
 
-    // Other useful methods...
+    public boolean isEmpty(){ return this.state.get() == State.EMPTY; }
+
+    public boolean isBoiled(){ return this.state.get() == State.BOILED; }
+
+    public State getState(){ return this.state.get(); }
 }
@@ -0,0 +1,179 @@
+package singleton;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A class for a registry that holds exactly one instance per key, generalizing the singleton to "one per production
+ * line", "one per tenant" and so on.  Each instance is created lazily the first time its key is asked for, and the
+ * factory runs exactly once per key even when many threads ask at the same moment.  Once an instance exists, looking
+ * it up takes no locks: one map read and one volatile read.
+ *
+ * For stateless helpers where sharing a single instance between every thread would only cause contention, a registry
+ * can be striped: it then keeps one instance per key per stripe, and each thread always uses the same stripe.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the instances.
+ */
+public class InstanceRegistry<K, V> {
+
+    private final ConcurrentHashMap<K, Slot<V>[]> instances;
+    private final Function<? super K, ? extends V> factory;
+    private final BiConsumer<? super K, ? super V> onEvict;
+    private final int stripeMask;
+    private volatile boolean shutDown;
+
+    /**
+     * Creates a registry holding one instance per key.
+     *
+     * @param factory Creates the instance for a key; must not return null.
+     */
+    public InstanceRegistry(Function<? super K, ? extends V> factory){
+        this(factory, (key, instance) -> { }, 1);
+    }
+
+    /**
+     * Creates a registry.
+     *
+     * @param factory Creates the instance for a key (and stripe); must not return null.
+     * @param onEvict Called with every instance removed from the registry by evict() or shutdown().
+     * @param stripes Number of instances to keep per key; rounded up to a power of two.  Use 1 for exactly one
+     *                instance per key, or the number of cores for stateless helpers.
+     */
+    public InstanceRegistry(Function<? super K, ? extends V> factory, BiConsumer<? super K, ? super V> onEvict,
+                            int stripes){
+        this.instances = new ConcurrentHashMap<>();
+        this.factory = factory;
+        this.onEvict = onEvict;
+        this.stripeMask = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1) - 1;
+    }
+
+    /**
+     * Returns the instance for the given key (and the calling thread's stripe), creating it if this is the first
+     * request for it.
+     *
+     * @param key Key of the instance.
+     * @return The one instance registered for the key.
+     * @throws IllegalStateException If the registry has been shut down.
+     * @throws NullPointerException If the factory returns null for the key.
+     */
+    public V get(K key){
+        while (true){
+            Slot<V>[] slots = this.instances.get(key);
+            if (slots == null){
+                slots = this.instances.computeIfAbsent(key, k -> this.newSlots());
+            }
+            Slot<V> slot = slots[this.stripe()];
+            V instance = slot.instance;
+            if (instance != null){
+                return instance;
+            }
+
+            instance = slot.create(key, this.factory);
+            if (instance != null){
+                return instance;
+            }
+            // The key was evicted while we were creating its instance; look it up again.
+            this.instances.remove(key, slots);
+            if (this.shutDown){
+                throw new IllegalStateException("Registry has been shut down");
+            }
+        }
+    }
+
+    /**
+     * Removes the instances for the given key, passing each one that had been created to the eviction hook.  The next
+     * request for the key creates a new instance.
+     *
+     * @param key Key to evict.
+     */
+    public void evict(K key){
+        Slot<V>[] slots = this.instances.remove(key);
+        if (slots != null){
+            for (Slot<V> slot : slots){
+                V instance = slot.close();
+                if (instance != null){
+                    this.onEvict.accept(key, instance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts every key and refuses any further requests.
+     */
+    public void shutdown(){
+        this.shutDown = true;
+        for (K key : this.instances.keySet()){
+            this.evict(key);
+        }
+    }
+
+    /**
+     * Informs the caller if an instance has been created for the given key.
+     *
+     * @param key Key to check.
+     * @return True iff the key currently has at least one instance.
+     */
+    public boolean contains(K key){
+        Slot<V>[] slots = this.instances.get(key);
+        if (slots == null){
+            return false;
+        }
+        for (Slot<V> slot : slots){
+            if (slot.instance != null){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size(){ return this.instances.size(); }
+
+    @SuppressWarnings("unchecked")
+    private Slot<V>[] newSlots(){
+        if (this.shutDown){
+            throw new IllegalStateException("Registry has been shut down");
+        }
+        Slot<V>[] slots = (Slot<V>[]) new Slot<?>[this.stripeMask + 1];
+        for (int i = 0; i < slots.length; i++){
+            slots[i] = new Slot<>();
+        }
+        return slots;
+    }
+
+    private int stripe(){
+        if (this.stripeMask == 0){
+            return 0;
+        }
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & this.stripeMask;
+    }
+
+    /**
+     * Holds one lazily created instance.  The factory runs under the slot's own lock, so creating one key's instance
+     * never blocks lookups of, or creation for, any other key.
+     */
+    private static final class Slot<V> {
+
+        volatile V instance;
+        private boolean closed;
+
+        synchronized <K> V create(K key, Function<? super K, ? extends V> factory){
+            if (this.instance == null && !this.closed){
+                // A null instance would read as "evicted while creating" and be retried forever.
+                this.instance = Objects.requireNonNull(factory.apply(key), "Factory returned null for " + key);
+            }
+            return this.instance;
+        }
+
+        synchronized V close(){
+            this.closed = true;
+            V instance = this.instance;
+            this.instance = null;
+            return instance;
+        }
+    }
+}
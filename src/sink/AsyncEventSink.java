@@ -0,0 +1,167 @@
+package sink;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A sink that hands events to a background thread which writes them out in batches.  Producers only claim a slot in
+ * a bounded lock-free ring buffer and store the event, so emitting never waits on the output stream; the only time a
+ * producer waits is when the ring is full and the writer has fallen behind.
+ *
+ * The ring is the bounded queue described by Dmitry Vyukov: each slot carries a sequence number that tells producers
+ * when the slot is free and the single consumer when it has been filled.
+ */
+public class AsyncEventSink implements EventSink {
+
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = 200_000;
+
+    private final PrintStream out;
+    private final int mask;
+    private final String[] events;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail;
+    private final Thread writer;
+    private long head;
+    private volatile long written;
+    private volatile boolean running;
+
+    /**
+     * Creates a sink writing to standard output with the default ring size, and registers a shutdown hook so events
+     * still in the ring are written before the JVM exits.
+     *
+     * @return A started sink on System.out.
+     */
+    public static AsyncEventSink stdout(){
+        AsyncEventSink sink = new AsyncEventSink(System.out, DEFAULT_CAPACITY);
+        Runtime.getRuntime().addShutdownHook(new Thread(sink::close, "event-sink-shutdown"));
+        return sink;
+    }
+
+    /**
+     * Creates a sink and starts its writer thread.
+     *
+     * @param out Stream that events are written to.
+     * @param capacity Number of events the ring can hold; rounded up to a power of two.
+     */
+    public AsyncEventSink(PrintStream out, int capacity){
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.out = out;
+        this.mask = size - 1;
+        this.events = new String[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++){
+            this.sequences.set(i, i);
+        }
+        this.tail = new AtomicLong();
+        this.running = true;
+        this.writer = new Thread(this::drainLoop, "event-sink-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void emit(String event) {
+        if (!this.running){
+            return;
+        }
+        while (!this.tryEmit(event)){
+            if (!this.running){
+                // Closed while waiting: the writer is gone and will never free a slot, so the event is dropped.
+                return;
+            }
+            // The ring is full: make sure the writer is awake and wait for it to free a slot.
+            LockSupport.unpark(this.writer);
+            Thread.onSpinWait();
+        }
+    }
+
+    private boolean tryEmit(String event){
+        while (true){
+            long position = this.tail.get();
+            int index = (int) position & this.mask;
+            long sequence = this.sequences.get(index);
+            if (sequence == position){
+                if (this.tail.compareAndSet(position, position + 1)){
+                    this.events[index] = event;
+                    // Publishes the event to the writer; it won't read the slot until it sees this sequence.
+                    this.sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position){
+                return false;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * This implementation waits for the writer thread to write out every event claimed before the call.
+     */
+    @Override
+    public void flush() {
+        long target = this.tail.get();
+        while (this.written < target && this.writer.isAlive()){
+            LockSupport.unpark(this.writer);
+            Thread.yield();
+        }
+        this.out.flush();
+    }
+
+    /**
+     * Writes out all pending events and stops the writer thread.  Events emitted after closing are dropped.  Closing
+     * an already closed sink does nothing.
+     */
+    @Override
+    public void close(){
+        this.flush();
+        this.running = false;
+        LockSupport.unpark(this.writer);
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop(){
+        StringBuilder batch = new StringBuilder(8192);
+        while (this.running){
+            if (this.drainBatch(batch) == 0){
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        while (this.drainBatch(batch) > 0) { }
+    }
+
+    /**
+     * Moves up to MAX_BATCH events out of the ring and writes them to the stream in a single call.
+     *
+     * @return Number of events written.
+     */
+    private int drainBatch(StringBuilder batch){
+        int count = 0;
+        while (count < MAX_BATCH){
+            int index = (int) this.head & this.mask;
+            if (this.sequences.get(index) != this.head + 1){
+                break;
+            }
+            batch.append(this.events[index]).append(System.lineSeparator());
+            this.events[index] = null;
+            this.sequences.lazySet(index, this.head + this.mask + 1);
+            this.head++;
+            count++;
+        }
+
+        if (count > 0){
+            this.out.print(batch);
+            this.out.flush();
+            batch.setLength(0);
+            this.written = this.head;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,30 @@
+package sink;
+
+import java.io.PrintStream;
+
+/**
+ * A sink that writes every event straight to a PrintStream on the calling thread.  This is how the receivers
+ * behaved before sinks existed, and every caller serializes on the stream's lock.
+ */
+public class ConsoleEventSink implements EventSink {
+
+    private final PrintStream out;
+
+    public ConsoleEventSink(){
+        this(System.out);
+    }
+
+    public ConsoleEventSink(PrintStream out){
+        this.out = out;
+    }
+
+    @Override
+    public void emit(String event) {
+        this.out.println(event);
+    }
+
+    @Override
+    public void flush() {
+        this.out.flush();
+    }
+}
@@ -0,0 +1,32 @@
+package sink;
+
+/**
+ * An interface for the destination of the events (lines of output) produced by the receivers in every pattern
+ * package.  Receivers write to Sinks.current() instead of System.out, so the output can be batched, redirected or
+ * discarded without changing them.
+ */
+public interface EventSink extends AutoCloseable {
+
+    /**
+     * Records a single event.  The event is written as one line.
+     *
+     * @param event Text of the event.
+     */
+    public void emit(String event);
+
+    /**
+     * Blocks until every event emitted before this call has been written.  Sinks that write synchronously need not
+     * override this.
+     */
+    public default void flush() { }
+
+    /**
+     * Writes out all pending events and releases whatever the sink holds (e.g. a writer thread).  Events emitted after
+     * closing may be dropped.  By default this only flushes; the underlying stream is never closed, since it is
+     * usually System.out.
+     */
+    @Override
+    public default void close() {
+        this.flush();
+    }
+}
@@ -0,0 +1,11 @@
+package sink;
+
+/**
+ * A null object sink that discards every event.  Useful for benchmarks, where console I/O would swamp the work being
+ * measured.
+ */
+public class NullEventSink implements EventSink {
+
+    @Override
+    public void emit(String event) { }
+}
@@ -0,0 +1,37 @@
+package sink;
+
+/**
+ * A class holding the EventSink that every receiver writes to.  By default this is an AsyncEventSink on standard
+ * output; programs that want plain synchronous output, or none at all (e.g. benchmarks), can install a
+ * ConsoleEventSink or NullEventSink instead.
+ */
+public final class Sinks {
+
+    private static volatile EventSink current = AsyncEventSink.stdout();
+
+    private Sinks(){ }
+
+    /**
+     * Returns the sink receivers should currently write to.
+     *
+     * @return The installed sink.
+     */
+    public static EventSink current(){
+        return current;
+    }
+
+    /**
+     * Installs a new sink and closes the previous one, which writes out its pending events first, so no events are
+     * reordered across the switch and a replaced AsyncEventSink doesn't leave its writer thread behind.  Events
+     * emitted to the previous sink by threads that read it just before the switch may be dropped.
+     *
+     * @param sink Sink that receivers should write to from now on.
+     */
+    public static void install(EventSink sink){
+        EventSink previous = current;
+        current = sink;
+        if (previous != sink){
+            previous.close();
+        }
+    }
+}
@@ -1,10 +1,51 @@
 package strategy;
 
+import sink.Sinks;
+
 public class BusStrategy implements TravelStrategy{
 
+    private final RouteEngine routes;
+
+    /**
+     * Creates a strategy that takes people straight to their destination, with no notion of route or cost.
+     */
+    public BusStrategy(){
+        this(null);
+    }
+
+    /**
+     * Creates a strategy that routes trips over the bus network known to the given engine.
+     *
+     * @param routes Engine to ask for routes and costs, or null.
+     */
+    public BusStrategy(RouteEngine routes){
+        this.routes = routes;
+    }
+
     @Override
     public void travel(Person person, String location) {
+        String via = this.describeRoute(person.getLocation(), location);
         person.setLocation(location);
-        System.out.println(person.getName() + " has travelled by bus to " + person.getLocation() + "\n");
+        Sinks.current().emit(person.getName() + " has travelled by bus to " + person.getLocation() + via + "\n");
+    }
+
+    @Override
+    public void travel(PersonRegistry people, int person, String location) {
+        String via = this.describeRoute(people.getLocation(person), location);
+        people.setLocation(person, location);
+        Sinks.current().emit(people.getName(person) + " has travelled by bus to " + location + via + "\n");
+    }
+
+    @Override
+    public double cost(String from, String to) {
+        return this.routes == null ? Double.NaN : this.routes.cost("bus", from, to);
+    }
+
+    private String describeRoute(String from, String to){
+        if (this.routes == null){
+            return "";
+        }
+        Route route = this.routes.route("bus", from, to);
+        return route == null ? " (no bus route known)" : " (route cost " + route.getCost() + ")";
     }
 }
\ No newline at end of file
@@ -1,10 +1,51 @@
 package strategy;
 
+import sink.Sinks;
+
 public class CarStrategy implements TravelStrategy{
 
+    private final RouteEngine routes;
+
+    /**
+     * Creates a strategy that takes people straight to their destination, with no notion of route or cost.
+     */
+    public CarStrategy(){
+        this(null);
+    }
+
+    /**
+     * Creates a strategy that routes trips over the car network known to the given engine.
+     *
+     * @param routes Engine to ask for routes and costs, or null.
+     */
+    public CarStrategy(RouteEngine routes){
+        this.routes = routes;
+    }
+
     @Override
     public void travel(Person person, String location) {
+        String via = this.describeRoute(person.getLocation(), location);
         person.setLocation(location);
-        System.out.printf(person.getName() + " has travelled by car to " + person.getLocation() + "\n");
+        Sinks.current().emit(person.getName() + " has travelled by car to " + person.getLocation() + via);
+    }
+
+    @Override
+    public void travel(PersonRegistry people, int person, String location) {
+        String via = this.describeRoute(people.getLocation(person), location);
+        people.setLocation(person, location);
+        Sinks.current().emit(people.getName(person) + " has travelled by car to " + location + via);
+    }
+
+    @Override
+    public double cost(String from, String to) {
+        return this.routes == null ? Double.NaN : this.routes.cost("car", from, to);
+    }
+
+    private String describeRoute(String from, String to){
+        if (this.routes == null){
+            return "";
+        }
+        Route route = this.routes.route("car", from, to);
+        return route == null ? " (no car route known)" : " (route cost " + route.getCost() + ")";
     }
 }
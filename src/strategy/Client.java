@@ -18,8 +18,15 @@ public class Client {
 
         // The client can change strategy at any time, through the context, without having to worry about implementation
         BusStrategy useBus = new BusStrategy();
+        context.setStrategy(useBus);
 
         context.takeTrip(bob, "hilton hotel");
         context.takeTrip(rob, "fairmont hotel");
+
+        // Or the client can leave the choice to the context, which picks whichever strategy has been fastest so far
+        context.setSelector(new StrategySelector(0.1, useCar, useBus));
+
+        context.takeTrip(bob, "terminal 1");
+        context.takeTrip(rob, "terminal 2");
     }
 }
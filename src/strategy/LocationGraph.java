@@ -0,0 +1,235 @@
+package strategy;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A class for a map of locations joined by roads, with a separate weight for each mode of travel (a road can be
+ * quick by car and slow by bus, or missing from the bus network altogether).  Locations are dictionary-encoded as
+ * ints and roads are kept in flat primitive arrays, one linked list of outgoing roads per location and mode, so
+ * shortest paths are computed without boxing or per-road objects.
+ */
+public class LocationGraph {
+
+    private static final int NONE = -1;
+
+    private final StringDictionary locations;
+    private final StringDictionary modes;
+    private int[][] firstRoad;
+    private int locationCapacity;
+    private int[] nextRoad;
+    private int[] roadTo;
+    private double[] roadWeight;
+    private int roads;
+    private volatile long version;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public LocationGraph(){
+        this.locations = new StringDictionary();
+        this.modes = new StringDictionary();
+        this.firstRoad = new int[0][];
+        this.locationCapacity = 16;
+        this.nextRoad = new int[64];
+        this.roadTo = new int[64];
+        this.roadWeight = new double[64];
+        this.roads = 0;
+    }
+
+    /**
+     * Adds a one-way road between two locations for the given mode of travel.
+     *
+     * @param mode Mode of travel the road can be used with, e.g. "car".
+     * @param from Location the road starts at.
+     * @param to Location the road ends at.
+     * @param weight Cost of travelling the road with this mode (distance, minutes, fare...).  Must not be negative.
+     * @throws IllegalArgumentException If the weight is negative or the mode or either location is null.
+     */
+    public void addRoad(String mode, String from, String to, double weight){
+        if (weight < 0){
+            throw new IllegalArgumentException("Road weights must not be negative");
+        }
+        if (mode == null || from == null || to == null){
+            throw new IllegalArgumentException("Roads need a mode and two known locations");
+        }
+        this.lock.writeLock().lock();
+        try {
+            this.insertRoad(mode, from, to, weight);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void insertRoad(String mode, String from, String to, double weight){
+        int m = this.modes.encode(mode);
+        int origin = this.locations.encode(from);
+        int destination = this.locations.encode(to);
+        this.ensureCapacity(m, Math.max(origin, destination));
+
+        if (this.roads == this.roadTo.length){
+            this.nextRoad = Arrays.copyOf(this.nextRoad, this.roads * 2);
+            this.roadTo = Arrays.copyOf(this.roadTo, this.roads * 2);
+            this.roadWeight = Arrays.copyOf(this.roadWeight, this.roads * 2);
+        }
+        this.roadTo[this.roads] = destination;
+        this.roadWeight[this.roads] = weight;
+        this.nextRoad[this.roads] = this.firstRoad[m][origin];
+        this.firstRoad[m][origin] = this.roads;
+        this.roads++;
+        this.version++;
+    }
+
+    /**
+     * Adds a road in both directions, with the same weight each way.
+     */
+    public void addTwoWayRoad(String mode, String from, String to, double weight){
+        this.addRoad(mode, from, to, weight);
+        this.addRoad(mode, to, from, weight);
+    }
+
+    /**
+     * Finds the cheapest path between two locations for the given mode of travel, using Dijkstra's algorithm with a
+     * binary heap over primitive arrays.
+     *
+     * @param mode Mode of travel.
+     * @param from Location to start from, or null if unknown.
+     * @param to Location to get to, or null if unknown.
+     * @return The cheapest route, or null if the destination can't be reached with this mode.
+     */
+    public Route shortestPath(String mode, String from, String to){
+        // Searches only read the graph, so any number can run at once; adding a road waits for them.
+        this.lock.readLock().lock();
+        try {
+            return this.search(mode, from, to);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private Route search(String mode, String from, String to){
+        int m = this.modes.lookup(mode);
+        int origin = this.locations.lookup(from);
+        int destination = this.locations.lookup(to);
+        if (m < 0 || origin < 0 || destination < 0){
+            return null;
+        }
+
+        int[] first = this.firstRoad[m];
+        int n = first.length;
+        double[] cost = new double[n];
+        int[] previous = new int[n];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, NONE);
+        cost[origin] = 0;
+
+        // A heap entry may be stale (its location already settled more cheaply); those are skipped when popped.
+        double[] heapCost = new double[16];
+        int[] heapLocation = new int[16];
+        int heapSize = 0;
+        heapCost[0] = 0;
+        heapLocation[0] = origin;
+        heapSize++;
+
+        while (heapSize > 0){
+            double current = heapCost[0];
+            int location = heapLocation[0];
+            heapSize--;
+            siftDown(heapCost, heapLocation, heapSize, heapCost[heapSize], heapLocation[heapSize]);
+            if (location == destination){
+                break;
+            }
+            if (current > cost[location]){
+                continue;
+            }
+
+            for (int road = first[location]; road != NONE; road = this.nextRoad[road]){
+                int next = this.roadTo[road];
+                double candidate = current + this.roadWeight[road];
+                if (candidate < cost[next]){
+                    cost[next] = candidate;
+                    previous[next] = location;
+                    if (heapSize == heapCost.length){
+                        heapCost = Arrays.copyOf(heapCost, heapSize * 2);
+                        heapLocation = Arrays.copyOf(heapLocation, heapSize * 2);
+                    }
+                    siftUp(heapCost, heapLocation, heapSize, candidate, next);
+                    heapSize++;
+                }
+            }
+        }
+
+        if (cost[destination] == Double.POSITIVE_INFINITY){
+            return null;
+        }
+        int stops = 1;
+        for (int at = destination; at != origin; at = previous[at]){
+            stops++;
+        }
+        String[] path = new String[stops];
+        int at = destination;
+        for (int i = stops - 1; i >= 0; i--){
+            path[i] = this.locations.decode(at);
+            at = previous[at];
+        }
+        return new Route(mode, cost[destination], path);
+    }
+
+    /**
+     * Returns a number that changes every time a road is added, so caches of computed routes know when to discard
+     * them.
+     *
+     * @return The graph's current version.
+     */
+    public long getVersion(){ return this.version; }
+
+    private void ensureCapacity(int mode, int location){
+        // Every mode has an entry for every location, so all modes are grown together.
+        if (location >= this.locationCapacity){
+            int grown = Math.max(location + 1, this.locationCapacity * 2);
+            for (int m = 0; m < this.firstRoad.length; m++){
+                this.firstRoad[m] = Arrays.copyOf(this.firstRoad[m], grown);
+                Arrays.fill(this.firstRoad[m], this.locationCapacity, grown, NONE);
+            }
+            this.locationCapacity = grown;
+        }
+        if (mode >= this.firstRoad.length){
+            this.firstRoad = Arrays.copyOf(this.firstRoad, mode + 1);
+            this.firstRoad[mode] = new int[this.locationCapacity];
+            Arrays.fill(this.firstRoad[mode], NONE);
+        }
+    }
+
+    private static void siftUp(double[] costs, int[] locations, int index, double cost, int location){
+        while (index > 0){
+            int parent = (index - 1) >>> 1;
+            if (costs[parent] <= cost){
+                break;
+            }
+            costs[index] = costs[parent];
+            locations[index] = locations[parent];
+            index = parent;
+        }
+        costs[index] = cost;
+        locations[index] = location;
+    }
+
+    private static void siftDown(double[] costs, int[] locations, int size, double cost, int location){
+        int index = 0;
+        while (true){
+            int child = 2 * index + 1;
+            if (child >= size){
+                break;
+            }
+            if (child + 1 < size && costs[child + 1] < costs[child]){
+                child++;
+            }
+            if (cost <= costs[child]){
+                break;
+            }
+            costs[index] = costs[child];
+            locations[index] = locations[child];
+            index = child;
+        }
+        costs[index] = cost;
+        locations[index] = location;
+    }
+}
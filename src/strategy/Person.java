@@ -3,7 +3,8 @@ package strategy;
 public class Person {
 
     private String name;
-    private String location;
+    // Volatile so a location set by a trip on one thread is seen by every other thread.
+    private volatile String location;
 
     public Person(String name, String location){
         this.name = name;
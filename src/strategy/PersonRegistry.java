@@ -0,0 +1,131 @@
+package strategy;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * A class for a registry of a large population of travellers, stored column by column rather than as one Person
+ * object each.  A person is identified by a stable int handle; their name and location are kept as dictionary codes
+ * in two int columns, so a million people cost two int arrays plus one copy of each distinct name and location.
+ *
+ * Locations can be updated concurrently: each person's location is its own atomic slot, so threads moving different
+ * people never contend.  Scans such as "everyone at terminal 1" compare ints down a single column.  As with Person,
+ * a name or location may be null.
+ */
+public class PersonRegistry {
+
+    private final StringDictionary names;
+    private final StringDictionary locations;
+    private final int[] nameCodes;
+    private final AtomicIntegerArray locationCodes;
+    private volatile int size;
+
+    /**
+     * Creates an empty registry with room for the given number of people.
+     *
+     * @param capacity Maximum number of people the registry can hold.
+     */
+    public PersonRegistry(int capacity){
+        this.names = new StringDictionary();
+        this.locations = new StringDictionary();
+        this.nameCodes = new int[capacity];
+        this.locationCodes = new AtomicIntegerArray(capacity);
+        this.size = 0;
+    }
+
+    /**
+     * Adds a person to the registry.
+     *
+     * @param name Name of the person.
+     * @param location Where the person is now.
+     * @return The person's handle.
+     * @throws IllegalStateException If the registry is full.
+     */
+    public synchronized int add(String name, String location){
+        int handle = this.size;
+        if (handle == this.nameCodes.length){
+            throw new IllegalStateException("Registry is full (" + handle + " people)");
+        }
+        this.nameCodes[handle] = this.names.encode(name);
+        this.locationCodes.set(handle, this.locations.encode(location));
+        // Publishing the new size makes the person's columns visible to scans on other threads.
+        this.size = handle + 1;
+        return handle;
+    }
+
+    public String getName(int person){
+        this.checkHandle(person);
+        return this.names.decode(this.nameCodes[person]);
+    }
+
+    public String getLocation(int person){
+        this.checkHandle(person);
+        return this.locations.decode(this.locationCodes.get(person));
+    }
+
+    /**
+     * Moves a person to the given location.  Safe to call from many threads at once.
+     *
+     * @param person Handle of the person.
+     * @param location New location of the person.
+     * @throws IndexOutOfBoundsException If no person has the given handle.
+     */
+    public void setLocation(int person, String location){
+        this.checkHandle(person);
+        this.locationCodes.set(person, this.locations.encode(location));
+    }
+
+    /**
+     * Counts the people currently at the given location.
+     *
+     * @param location Location to look for, or null for people whose location is unknown.
+     * @return Number of people there.
+     */
+    public int countAt(String location){
+        int code = this.locations.lookup(location);
+        if (code == StringDictionary.NOT_FOUND){
+            return 0;
+        }
+        int count = 0;
+        int size = this.size;
+        for (int person = 0; person < size; person++){
+            if (this.locationCodes.get(person) == code){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calls the given action with the handle of every person currently at the given location.
+     *
+     * @param location Location to look for, or null for people whose location is unknown.
+     * @param action Action called with each person's handle.
+     */
+    public void forEachAt(String location, IntConsumer action){
+        int code = this.locations.lookup(location);
+        if (code == StringDictionary.NOT_FOUND){
+            return;
+        }
+        int size = this.size;
+        for (int person = 0; person < size; person++){
+            if (this.locationCodes.get(person) == code){
+                action.accept(person);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of people in the registry.  Handles run from 0 to size() - 1.
+     *
+     * @return Number of people.
+     */
+    public int size(){ return this.size; }
+
+    // Reading the published size first also makes the columns that add() wrote before publishing it visible here.
+    private void checkHandle(int person){
+        if (person < 0 || person >= this.size){
+            throw new IndexOutOfBoundsException("No person with handle " + person);
+        }
+    }
+}
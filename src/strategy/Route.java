@@ -0,0 +1,33 @@
+package strategy;
+
+/**
+ * A class for a computed route between two locations: the mode of travel, the total cost and every stop along the
+ * way, starting at the origin and ending at the destination.
+ */
+public class Route {
+
+    private final String mode;
+    private final double cost;
+    private final String[] stops;
+
+    public Route(String mode, double cost, String[] stops){
+        this.mode = mode;
+        this.cost = cost;
+        this.stops = stops;
+    }
+
+    public String getMode(){ return this.mode; }
+
+    public double getCost(){ return this.cost; }
+
+    public String getOrigin(){ return this.stops[0]; }
+
+    public String getDestination(){ return this.stops[this.stops.length - 1]; }
+
+    /**
+     * Returns the stops along the route, including the origin and destination.
+     *
+     * @return A copy of the route's stops, in order.
+     */
+    public String[] getStops(){ return this.stops.clone(); }
+}
@@ -0,0 +1,119 @@
+package strategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class for the routing engine that travel strategies query for the route and cost of a trip.  It answers from a
+ * LocationGraph and keeps the most recently used routes in a bounded LRU cache, so a repeated trip such as
+ * "terminal 1 -> hilton hotel" by car is a cache lookup rather than a new shortest path search.  The cache is
+ * discarded whenever a road is added to the graph.
+ */
+public class RouteEngine {
+
+    private final LocationGraph graph;
+    private final LinkedHashMap<RouteKey, Route> cache;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private long cachedVersion;
+
+    /**
+     * Creates an engine for the given graph.
+     *
+     * @param graph Map of locations and roads to route on.
+     * @param cacheSize Maximum number of routes to cache.
+     */
+    public RouteEngine(LocationGraph graph, int cacheSize){
+        this.graph = graph;
+        // An access-ordered LinkedHashMap is an LRU list: the eldest entry is the least recently used one.
+        this.cache = new LinkedHashMap<>(Math.min(cacheSize, 1 << 16), 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RouteKey, Route> eldest){
+                return this.size() > cacheSize;
+            }
+        };
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.cachedVersion = graph.getVersion();
+    }
+
+    /**
+     * Returns the cheapest route between two locations for the given mode of travel.
+     *
+     * @param mode Mode of travel, e.g. "car".
+     * @param from Location to start from, or null if unknown.
+     * @param to Location to get to, or null if unknown.
+     * @return The cheapest route, or null if the destination can't be reached with this mode (or either location is
+     *         unknown).
+     */
+    public Route route(String mode, String from, String to){
+        RouteKey key = new RouteKey(mode, from, to);
+        long version = this.graph.getVersion();
+        synchronized (this.cache){
+            if (version != this.cachedVersion){
+                this.cache.clear();
+                this.cachedVersion = version;
+            }
+            Route route = this.cache.get(key);
+            if (route != null || this.cache.containsKey(key)){
+                this.hits.increment();
+                return route;
+            }
+        }
+
+        // Searching outside the lock lets other trips hit the cache meanwhile; a racing miss just searches twice.
+        this.misses.increment();
+        Route route = this.graph.shortestPath(mode, from, to);
+        synchronized (this.cache){
+            if (version == this.cachedVersion){
+                this.cache.put(key, route);
+            }
+        }
+        return route;
+    }
+
+    /**
+     * Returns the cost of the cheapest route between two locations for the given mode of travel.
+     *
+     * @return The route's cost, or infinity if the destination can't be reached with this mode.
+     */
+    public double cost(String mode, String from, String to){
+        Route route = this.route(mode, from, to);
+        return route == null ? Double.POSITIVE_INFINITY : route.getCost();
+    }
+
+    public long getHits(){ return this.hits.sum(); }
+
+    public long getMisses(){ return this.misses.sum(); }
+
+    private static final class RouteKey {
+
+        private final String mode;
+        private final String from;
+        private final String to;
+
+        RouteKey(String mode, String from, String to){
+            this.mode = mode;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if (!(o instanceof RouteKey)){
+                return false;
+            }
+            RouteKey other = (RouteKey) o;
+            // A person's location may be null, so from and to may be too.
+            return this.mode.equals(other.mode) && Objects.equals(this.from, other.from)
+                    && Objects.equals(this.to, other.to);
+        }
+
+        @Override
+        public int hashCode(){
+            return (this.mode.hashCode() * 31 + Objects.hashCode(this.from)) * 31 + Objects.hashCode(this.to);
+        }
+    }
+}
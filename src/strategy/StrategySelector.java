@@ -0,0 +1,131 @@
+package strategy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A class for choosing a travel strategy per route from measurements, rather than by hand.  The selector records the
+ * observed cost (by default, how long the trip took) of each strategy on each route, and picks strategies with an
+ * epsilon-greedy bandit: every strategy is tried once per route, after that the cheapest one so far is chosen, except
+ * that a small fraction of trips picks a strategy at random so the selector notices if another one gets cheaper.
+ *
+ * Choosing and recording take no locks and, once a route has been seen, allocate nothing.
+ */
+public class StrategySelector {
+
+    // Stands in for a null origin or destination (e.g. a Person created without a location), since
+    // ConcurrentHashMap takes no null keys.  No real place name contains a NUL character.
+    private static final String UNKNOWN_PLACE = "\0unknown";
+
+    private final TravelStrategy[] strategies;
+    private final double epsilon;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, RouteStats>> routes;
+
+    /**
+     * Creates a selector choosing between the given strategies.
+     *
+     * @param epsilon Fraction of trips, between 0 and 1, on which a strategy is picked at random.
+     * @param strategies Strategies to choose between.
+     */
+    public StrategySelector(double epsilon, TravelStrategy... strategies){
+        if (strategies.length == 0){
+            throw new IllegalArgumentException("At least one strategy is needed");
+        }
+        this.strategies = strategies.clone();
+        this.epsilon = epsilon;
+        this.routes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Chooses the strategy to use for a trip on the given route.  An unknown (null) origin or destination counts as
+     * a place of its own.
+     *
+     * @param origin Where the trip starts, or null if unknown.
+     * @param destination Where the trip ends, or null if unknown.
+     * @return Index of the chosen strategy, to be passed to getStrategy() and record().
+     */
+    public int select(String origin, String destination){
+        RouteStats stats = this.find(origin, destination);
+        if (stats == null){
+            return 0;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < this.epsilon){
+            return random.nextInt(this.strategies.length);
+        }
+
+        int best = 0;
+        double bestCost = Double.MAX_VALUE;
+        for (int i = 0; i < this.strategies.length; i++){
+            long trips = stats.trips.get(i);
+            if (trips == 0){
+                return i;
+            }
+            double cost = (double) stats.costs.get(i) / trips;
+            if (cost < bestCost){
+                best = i;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Records the cost of a trip taken with the given strategy.
+     *
+     * @param origin Where the trip started, or null if unknown.
+     * @param destination Where the trip ended, or null if unknown.
+     * @param strategy Index of the strategy used, as returned by select().
+     * @param cost Cost of the trip, e.g. nanoseconds taken.  Lower is better.
+     */
+    public void record(String origin, String destination, int strategy, long cost){
+        RouteStats stats = this.find(origin, destination);
+        if (stats == null){
+            stats = this.routes.computeIfAbsent(place(origin), o -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(place(destination), d -> new RouteStats(this.strategies.length));
+        }
+        stats.costs.addAndGet(strategy, cost);
+        stats.trips.incrementAndGet(strategy);
+    }
+
+    public TravelStrategy getStrategy(int strategy){ return this.strategies[strategy]; }
+
+    public int getStrategyCount(){ return this.strategies.length; }
+
+    /**
+     * Returns the average recorded cost of a strategy on a route.
+     *
+     * @return Average cost, or NaN if the strategy has never been used on the route.
+     */
+    public double getAverageCost(String origin, String destination, int strategy){
+        RouteStats stats = this.find(origin, destination);
+        long trips = stats == null ? 0 : stats.trips.get(strategy);
+        return trips == 0 ? Double.NaN : (double) stats.costs.get(strategy) / trips;
+    }
+
+    // Looks a route up with two map reads, so no key has to be built for it.
+    private RouteStats find(String origin, String destination){
+        ConcurrentHashMap<String, RouteStats> fromOrigin = this.routes.get(place(origin));
+        return fromOrigin == null ? null : fromOrigin.get(place(destination));
+    }
+
+    private static String place(String location){
+        return location == null ? UNKNOWN_PLACE : location;
+    }
+
+    /**
+     * Number of trips and total cost of every strategy on one route.
+     */
+    private static final class RouteStats {
+
+        final AtomicLongArray trips;
+        final AtomicLongArray costs;
+
+        RouteStats(int strategies){
+            this.trips = new AtomicLongArray(strategies);
+            this.costs = new AtomicLongArray(strategies);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package strategy;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class for a dictionary that encodes strings as small ints.  Each distinct string is stored once and given the
+ * next free code, so columns of repetitive strings (names, locations) can be stored as int arrays instead.  Looking
+ * up a code, in either direction, takes no locks.  Null is a valid value with a reserved code of its own.
+ */
+public class StringDictionary {
+
+    /**
+     * Returned by lookup() for a string that has no code.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * The code of null.
+     */
+    public static final int NULL_CODE = -2;
+
+    private final ConcurrentHashMap<String, Integer> codes;
+    private volatile String[] values;
+    private int size;
+
+    public StringDictionary(){
+        this.codes = new ConcurrentHashMap<>();
+        this.values = new String[16];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the code for the given string, giving it a new code if it has none yet.
+     *
+     * @param value String to encode, or null.
+     * @return The string's code, or NULL_CODE for null.
+     */
+    public int encode(String value){
+        if (value == null){
+            return NULL_CODE;
+        }
+        Integer code = this.codes.get(value);
+        if (code != null){
+            return code;
+        }
+        synchronized (this){
+            code = this.codes.get(value);
+            if (code != null){
+                return code;
+            }
+            if (this.size == this.values.length){
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size] = value;
+            // The string is in values before its code is published, so any thread that sees the code can decode it.
+            this.codes.put(value, this.size);
+            return this.size++;
+        }
+    }
+
+    /**
+     * Returns the code for the given string without adding it.
+     *
+     * @param value String to look up, or null.
+     * @return The string's code, NULL_CODE for null, or NOT_FOUND if it has none.
+     */
+    public int lookup(String value){
+        if (value == null){
+            return NULL_CODE;
+        }
+        Integer code = this.codes.get(value);
+        return code == null ? NOT_FOUND : code;
+    }
+
+    /**
+     * Returns the string with the given code.
+     *
+     * @param code Code returned by encode().
+     * @return The string the code stands for, or null for NULL_CODE.
+     */
+    public String decode(int code){
+        return code == NULL_CODE ? null : this.values[code];
+    }
+
+    public int size(){ return this.codes.size(); }
+}
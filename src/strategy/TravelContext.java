@@ -1,12 +1,29 @@
 package strategy;
 
+import java.util.concurrent.ForkJoinPool;
+
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
 /**
  * A class for a travel context. It exposes a setter method by mean of which the client can pass a chosen strategy and
  * a call to an algorithm to be implemented by all the valid strategies that can be passed.
+ *
+ * Instead of a fixed strategy, the context can be given a StrategySelector.  In this adaptive mode every trip is
+ * timed, and the selector chooses the strategy for each trip from how the strategies have performed on that route.
  */
 public class TravelContext {
 
+    // Batches smaller than this aren't worth splitting between threads.
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private static final Counter TRIPS = Metrics.counter("travel.trips");
+    private static final LatencyHistogram TRIP_LATENCY = Metrics.histogram("travel.trip.latency");
+    private static final LatencyHistogram BATCH_LATENCY = Metrics.histogram("travel.batch.latency");
+
     private TravelStrategy strategy;
+    private StrategySelector selector;
 
     /**
      * Sets this context's strategy.
@@ -17,6 +34,16 @@ public class TravelContext {
         this.strategy = strategy;
     }
 
+    /**
+     * Switches this context to adaptive mode, where the given selector chooses the strategy for each trip.  Passing
+     * null switches back to the strategy set with setStrategy().
+     *
+     * @param selector Selector choosing between strategies, or null.
+     */
+    public void setSelector(StrategySelector selector){
+        this.selector = selector;
+    }
+
 
     /**
      * The algorithm to be called on all the interchangeable strategies.
@@ -25,7 +52,82 @@ public class TravelContext {
      * @param location Location to take the Person object to.
      */
     public void takeTrip(Person person, String location){
-        this.strategy.travel(person, location);
+        TRIPS.increment();
+        StrategySelector selector = this.selector;
+        if (selector == null){
+            long start = TRIP_LATENCY.start();
+            this.strategy.travel(person, location);
+            TRIP_LATENCY.recordSince(start);
+            return;
+        }
+
+        String origin = person.getLocation();
+        int choice = selector.select(origin, location);
+        long start = System.nanoTime();
+        selector.getStrategy(choice).travel(person, location);
+        long elapsed = System.nanoTime() - start;
+        selector.record(origin, location, choice, elapsed);
+        TRIP_LATENCY.record(elapsed);
+    }
+
+    /**
+     * Takes a person held in a PersonRegistry to the given location, with the current strategy or, in adaptive mode,
+     * the strategy chosen by the selector.
+     *
+     * @param people Registry holding the person.
+     * @param person Handle of the person in the registry.
+     * @param location Location to take the person to.
+     */
+    public void takeTrip(PersonRegistry people, int person, String location){
+        StrategySelector selector = this.selector;
+        TRIPS.increment();
+        if (selector == null){
+            long start = TRIP_LATENCY.start();
+            this.strategy.travel(people, person, location);
+            TRIP_LATENCY.recordSince(start);
+            return;
+        }
+
+        String origin = people.getLocation(person);
+        int choice = selector.select(origin, location);
+        long start = System.nanoTime();
+        selector.getStrategy(choice).travel(people, person, location);
+        long elapsed = System.nanoTime() - start;
+        selector.record(origin, location, choice, elapsed);
+        TRIP_LATENCY.record(elapsed);
+    }
+
+    /**
+     * Takes a whole batch of people to their locations: people[i] is taken to locations[i].  Large batches are split
+     * between the threads of the common fork/join pool.  Each person's trips are taken on one thread, and each
+     * strategy is called on contiguous runs of trips rather than one trip at a time.
+     *
+     * Every trip in the batch is taken before this method returns.  Trips are grouped by strategy, so if the same
+     * person appears more than once in a batch (in adaptive mode), the order of their trips is not guaranteed.
+     *
+     * @param people People that will travel.
+     * @param locations Location to take each person to.
+     */
+    public void takeTrips(Person[] people, String[] locations){
+        if (people.length != locations.length){
+            throw new IllegalArgumentException("Every person needs exactly one location");
+        }
+
+        TRIPS.add(people.length);
+        long start = BATCH_LATENCY.start();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        if (people.length < PARALLEL_THRESHOLD || pool.getParallelism() < 2){
+            if (this.selector == null){
+                // One thread and one strategy: the batch is already a single contiguous run.
+                this.strategy.travelAll(people, locations, 0, people.length);
+            } else {
+                new TripBatch(people, locations, this.strategy, this.selector, 1).takeAll();
+            }
+        } else {
+            int partitions = pool.getParallelism() * 4;
+            pool.invoke(new TripBatch(people, locations, this.strategy, this.selector, partitions));
+        }
+        BATCH_LATENCY.recordSince(start);
     }
 
 }
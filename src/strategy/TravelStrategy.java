@@ -4,4 +4,42 @@ public interface TravelStrategy {
 
     public void travel(Person person, String location);
 
+    /**
+     * Takes a batch of people to their locations.  Batches are contiguous ranges of two parallel arrays: people[i] is
+     * taken to locations[i].  Strategies that can do better than one trip at a time should override this.
+     *
+     * @param people People that will travel.
+     * @param locations Location to take each person to.
+     * @param from Index of the first trip in the batch.
+     * @param to Index after the last trip in the batch.
+     */
+    public default void travelAll(Person[] people, String[] locations, int from, int to){
+        for (int i = from; i < to; i++){
+            this.travel(people[i], locations[i]);
+        }
+    }
+
+    /**
+     * Takes a person held in a PersonRegistry to the given location.
+     *
+     * @param people Registry holding the person.
+     * @param person Handle of the person in the registry.
+     * @param location Location to take the person to.
+     */
+    public default void travel(PersonRegistry people, int person, String location){
+        people.setLocation(person, location);
+    }
+
+    /**
+     * Returns what a trip between two locations would cost with this strategy, so strategies can be compared before
+     * choosing one.
+     *
+     * @param from Location the trip starts at.
+     * @param to Location the trip ends at.
+     * @return Cost of the trip, infinity if this strategy can't make it, or NaN if this strategy doesn't know.
+     */
+    public default double cost(String from, String to){
+        return Double.NaN;
+    }
+
 }
@@ -0,0 +1,151 @@
+package strategy;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A fork/join task that takes a batch of trips.  The trips are split into partitions by person, so a person's trips
+ * all land in the same partition and no two threads ever move the same person at once.  Partitions are then split
+ * between the pool's threads, and within a partition trips are grouped by strategy, so each strategy is called once
+ * on a contiguous run of trips.
+ */
+class TripBatch extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Person[] people;
+    private final String[] locations;
+    private final TravelStrategy strategy;
+    private final StrategySelector selector;
+    private final int[] order;
+    private final int[] partitionStart;
+    private final int fromPartition;
+    private final int toPartition;
+
+    /**
+     * Creates the task for a whole batch.
+     *
+     * @param people People that will travel.
+     * @param locations Location to take each person to.
+     * @param strategy Strategy for every trip, used when selector is null.
+     * @param selector Selector choosing the strategy for each trip, or null.
+     * @param partitions Number of partitions to split the trips into.
+     */
+    TripBatch(Person[] people, String[] locations, TravelStrategy strategy, StrategySelector selector, int partitions){
+        this.people = people;
+        this.locations = locations;
+        this.strategy = strategy;
+        this.selector = selector;
+        this.fromPartition = 0;
+        this.toPartition = partitions;
+
+        // Counting sort of the trips by partition: order lists trip indexes partition by partition, in batch order.
+        int[] partitionOf = new int[people.length];
+        this.partitionStart = new int[partitions + 1];
+        for (int i = 0; i < people.length; i++){
+            int hash = System.identityHashCode(people[i]);
+            partitionOf[i] = Math.floorMod(hash ^ (hash >>> 16), partitions);
+            this.partitionStart[partitionOf[i] + 1]++;
+        }
+        for (int p = 0; p < partitions; p++){
+            this.partitionStart[p + 1] += this.partitionStart[p];
+        }
+        this.order = new int[people.length];
+        int[] next = this.partitionStart.clone();
+        for (int i = 0; i < people.length; i++){
+            this.order[next[partitionOf[i]]++] = i;
+        }
+    }
+
+    private TripBatch(TripBatch batch, int fromPartition, int toPartition){
+        this.people = batch.people;
+        this.locations = batch.locations;
+        this.strategy = batch.strategy;
+        this.selector = batch.selector;
+        this.order = batch.order;
+        this.partitionStart = batch.partitionStart;
+        this.fromPartition = fromPartition;
+        this.toPartition = toPartition;
+    }
+
+    @Override
+    protected void compute(){
+        if (this.toPartition - this.fromPartition == 1){
+            this.takePartition(this.fromPartition);
+            return;
+        }
+        int middle = (this.fromPartition + this.toPartition) >>> 1;
+        invokeAll(new TripBatch(this, this.fromPartition, middle), new TripBatch(this, middle, this.toPartition));
+    }
+
+    /**
+     * Takes every trip in the batch on the calling thread, still grouped by strategy.
+     */
+    void takeAll(){
+        for (int p = this.fromPartition; p < this.toPartition; p++){
+            this.takePartition(p);
+        }
+    }
+
+    private void takePartition(int partition){
+        int start = this.partitionStart[partition];
+        int size = this.partitionStart[partition + 1] - start;
+        if (size == 0){
+            return;
+        }
+        if (this.selector == null){
+            this.takeWithFixedStrategy(start, size);
+            return;
+        }
+
+        // Choose a strategy for every trip, then counting sort the trips so each strategy's trips are contiguous.
+        int strategies = this.selector.getStrategyCount();
+        int[] choice = new int[size];
+        int[] strategyStart = new int[strategies + 1];
+        for (int i = 0; i < size; i++){
+            int trip = this.order[start + i];
+            choice[i] = this.selector.select(this.people[trip].getLocation(), this.locations[trip]);
+            strategyStart[choice[i] + 1]++;
+        }
+        for (int s = 0; s < strategies; s++){
+            strategyStart[s + 1] += strategyStart[s];
+        }
+
+        Person[] people = new Person[size];
+        String[] origins = new String[size];
+        String[] destinations = new String[size];
+        int[] next = strategyStart.clone();
+        for (int i = 0; i < size; i++){
+            int trip = this.order[start + i];
+            int slot = next[choice[i]]++;
+            people[slot] = this.people[trip];
+            origins[slot] = this.people[trip].getLocation();
+            destinations[slot] = this.locations[trip];
+        }
+
+        for (int s = 0; s < strategies; s++){
+            int from = strategyStart[s];
+            int to = strategyStart[s + 1];
+            if (from == to){
+                continue;
+            }
+            long begin = System.nanoTime();
+            this.selector.getStrategy(s).travelAll(people, destinations, from, to);
+            // Trips in a batch aren't timed one by one, so each is charged the batch's average.
+            long cost = (System.nanoTime() - begin) / (to - from);
+            for (int i = from; i < to; i++){
+                this.selector.record(origins[i], destinations[i], s, cost);
+            }
+        }
+    }
+
+    private void takeWithFixedStrategy(int start, int size){
+        Person[] people = new Person[size];
+        String[] destinations = new String[size];
+        for (int i = 0; i < size; i++){
+            int trip = this.order[start + i];
+            people[i] = this.people[trip];
+            destinations[i] = this.locations[trip];
+        }
+        this.strategy.travelAll(people, destinations, 0, size);
+    }
+}
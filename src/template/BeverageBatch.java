@@ -0,0 +1,223 @@
+package template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
+/**
+ * A class for preparing a batch of beverages together.  It runs the same recipe as CaffeineBeverage.prepareRecipe(),
+ * but the water for the whole batch is boiled once, and the per-drink steps run as a pipeline: one worker brews,
+ * one pours and one adds condiments and serves, each passing drinks on to the next.  While one drink is being poured
+ * the next is already brewing.
+ *
+ * Every drink still goes through its steps in the template's order (ask for preferences, brew, pour, ask the
+ * condiments hook, add condiments if wanted, serve), and drinks are served in the order they were ordered.
+ */
+public class BeverageBatch {
+
+    private static final int QUEUE_SIZE = 64;
+    private static final LatencyHistogram BATCH_LATENCY = Metrics.histogram("beverage.batch.latency");
+
+    // Marks the end of the batch as it flows down the pipeline.
+    private static final CaffeineBeverage END = new CaffeineBeverage() {
+        @Override
+        void brew() { }
+
+        @Override
+        void addCondiments() { }
+    };
+
+    private final List<CaffeineBeverage> orders;
+
+    /**
+     * Creates a batch of the given orders.
+     *
+     * @param orders Beverages to prepare, in the order they should be served.
+     */
+    public BeverageBatch(List<? extends CaffeineBeverage> orders){
+        this.orders = new ArrayList<>(orders);
+    }
+
+    /**
+     * Prepares every beverage in the batch and reports how long it took.
+     *
+     * If any step fails for any drink, the rest of the batch is abandoned, the pipeline is wound down, and the first
+     * failure is rethrown; no report is returned for a batch that wasn't fully prepared.
+     *
+     * @return Throughput and per-stage timings of the batch.
+     * @throws InterruptedException If interrupted while waiting for the pipeline to finish.
+     * @throws RuntimeException The first exception thrown by a step, if any step failed.
+     */
+    public Report prepare() throws InterruptedException {
+        Report report = new Report(this.orders.size());
+        if (this.orders.isEmpty()){
+            return report;
+        }
+        long start = System.nanoTime();
+
+        // Ask every customer up front; the answers come in while the batch is prepared.
+        for (CaffeineBeverage beverage : this.orders){
+            beverage.askPreferences();
+        }
+
+        // Shared step: boil the water once for everybody.
+        this.orders.get(0).boilWater();
+        report.boilNanos = System.nanoTime() - start;
+
+        BlockingQueue<CaffeineBeverage> toPour = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        BlockingQueue<CaffeineBeverage> toFinish = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread pourer = stage("pour", toPour, toFinish, CaffeineBeverage::pourInCup, report.stageNanos, 1, failure);
+        Thread finisher = stage("finish", toFinish, null, beverage -> {
+            if (beverage.customerWantsCondiments()){
+                beverage.addCondiments();
+            }
+            beverage.serve();
+        }, report.stageNanos, 2, failure);
+        pourer.start();
+        finisher.start();
+
+        try {
+            // The calling thread is the first stage, brewing drinks and feeding the pipeline.
+            try {
+                for (CaffeineBeverage beverage : this.orders){
+                    if (failure.get() != null){
+                        break;
+                    }
+                    long begin = System.nanoTime();
+                    beverage.brew();
+                    report.stageNanos[0] += System.nanoTime() - begin;
+                    toPour.put(beverage);
+                }
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+            // The end marker is sent even after a failure, so the other stages drain their queues and finish.
+            toPour.put(END);
+            pourer.join();
+            finisher.join();
+        } catch (InterruptedException e) {
+            pourer.interrupt();
+            finisher.interrupt();
+            throw e;
+        }
+
+        Throwable failed = failure.get();
+        if (failed instanceof RuntimeException){
+            throw (RuntimeException) failed;
+        }
+        if (failed instanceof Error){
+            throw (Error) failed;
+        }
+        if (failed != null){
+            throw new IllegalStateException("Batch preparation failed", failed);
+        }
+        report.totalNanos = System.nanoTime() - start;
+        CaffeineBeverage.PREPARED.add(this.orders.size());
+        BATCH_LATENCY.record(report.totalNanos);
+        return report;
+    }
+
+    /**
+     * Creates a worker thread that takes beverages from one queue, carries out a step on each and hands them to the
+     * next queue, until it sees the end of the batch.  Time spent in the step is added to stageNanos[stage]; only
+     * this worker writes that slot, and join() publishes it to the caller.
+     *
+     * If the step throws, the first failure of the batch is kept in failure.  From then on every stage stops working
+     * on drinks but keeps taking them off its queue, so nobody upstream blocks on a full queue, and still passes the
+     * end marker on, so everybody downstream finishes.
+     */
+    private static Thread stage(String name, BlockingQueue<CaffeineBeverage> in, BlockingQueue<CaffeineBeverage> out,
+                                Consumer<CaffeineBeverage> step, long[] stageNanos, int stage,
+                                AtomicReference<Throwable> failure){
+        Thread worker = new Thread(() -> {
+            try {
+                while (true){
+                    CaffeineBeverage beverage = in.take();
+                    if (beverage == END){
+                        if (out != null){
+                            out.put(END);
+                        }
+                        return;
+                    }
+                    if (failure.get() != null){
+                        continue;
+                    }
+                    try {
+                        long begin = System.nanoTime();
+                        step.accept(beverage);
+                        stageNanos[stage] += System.nanoTime() - begin;
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                        continue;
+                    }
+                    if (out != null){
+                        out.put(beverage);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "beverage-" + name);
+        worker.setDaemon(true);
+        return worker;
+    }
+
+    /**
+     * A class for the timings of a prepared batch.
+     */
+    public static class Report {
+
+        private static final String[] STAGES = {"brew", "pour", "condiments and serve"};
+
+        private final int drinks;
+        private final long[] stageNanos;
+        private long boilNanos;
+        private long totalNanos;
+
+        Report(int drinks){
+            this.drinks = drinks;
+            this.stageNanos = new long[STAGES.length];
+        }
+
+        public int getDrinks(){ return this.drinks; }
+
+        public long getTotalNanos(){ return this.totalNanos; }
+
+        /**
+         * Returns the number of drinks prepared per second.
+         *
+         * @return Throughput of the batch.
+         */
+        public double getThroughput(){
+            return this.totalNanos == 0 ? 0 : this.drinks * 1e9 / this.totalNanos;
+        }
+
+        /**
+         * Returns the average time one drink spent being worked on in the given stage.
+         *
+         * @param stage Index of the stage: 0 brew, 1 pour, 2 condiments and serve.
+         * @return Average nanoseconds per drink in the stage.
+         */
+        public double getStageLatency(int stage){
+            return this.drinks == 0 ? 0 : (double) this.stageNanos[stage] / this.drinks;
+        }
+
+        @Override
+        public String toString(){
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%d drinks in %.3f ms (%.0f drinks/s); water boiled once in %.3f ms",
+                    this.drinks, this.totalNanos / 1e6, this.getThroughput(), this.boilNanos / 1e6));
+            for (int i = 0; i < STAGES.length; i++){
+                report.append(String.format("%n  %-22s %10.0f ns/drink", STAGES[i], this.getStageLatency(i)));
+            }
+            return report.toString();
+        }
+    }
+}
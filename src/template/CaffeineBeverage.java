@@ -1,22 +1,36 @@
 package template;
 
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import sink.Sinks;
+
 /**
  * An abstract class for a caffeinated beverage.  This class controls the recipe algorithm and call on subclasses to
  * define the brewing and condiment-adding process (depending on an optional hook).
  */
 public abstract class CaffeineBeverage {
 
+    // Shared with BeverageBatch, which prepares beverages without going through prepareRecipe().
+    static final Counter PREPARED = Metrics.counter("beverage.prepared");
+    private static final LatencyHistogram PREPARE_LATENCY = Metrics.histogram("beverage.prepare.latency");
+
     /**
-     * The template method for preparing a recipe - boiling, brewing, pouring, and condiments.
+     * The template method for preparing a recipe - boiling, brewing, pouring, and condiments.  The customer's
+     * preferences are asked for first, so the answer can arrive while the water boils.
      */
     final void prepareRecipe() {
+        long start = PREPARE_LATENCY.start();
+        askPreferences();
         boilWater();
         brew();
         pourInCup();
         if(customerWantsCondiments()) {
             addCondiments();
         }
-        System.out.println("Your beverage is ready!\n");
+        serve();
+        PREPARED.increment();
+        PREPARE_LATENCY.recordSince(start);
     }
 
     /**
@@ -33,14 +47,36 @@ public abstract class CaffeineBeverage {
      * Boils the water for the beverage.
      */
     void boilWater() {
-        System.out.println("Boiling water...");
+        Sinks.current().emit("Boiling water...");
     }
 
     /**
      * Pours beverage in a cup.
      */
     void pourInCup() {
-        System.out.println("Pouring in cup");
+        Sinks.current().emit("Pouring in cup");
+    }
+
+    /**
+     * Hands the finished beverage to the customer.
+     */
+    void serve() {
+        Sinks.current().emit("Your beverage is ready!\n");
+    }
+
+    /**
+     * Hook method called before anything else in the recipe, where subclasses can start asking for the customer's
+     * preferences.  By default there is nothing to ask.
+     */
+    void askPreferences() { }
+
+    /**
+     * Returns the question asked of a customer who is deciding on condiments.
+     *
+     * @return The condiments question for this beverage.
+     */
+    String condimentsQuestion() {
+        return "Would you like condiments with your beverage?";
     }
 
     /**
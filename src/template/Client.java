@@ -1,12 +1,20 @@
 package template;
 
+import java.util.List;
+
+import sink.Sinks;
+
 public class Client {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         Coffee coffee = new Coffee();
         Tea tea = new Tea();
 
         tea.prepareRecipe();
         coffee.prepareRecipe();
+
+        // A table of three orders tea: boil the water once and prepare the cups side by side
+        BeverageBatch batch = new BeverageBatch(List.of(new Tea(), new Tea(), new Tea()));
+        Sinks.current().emit(batch.prepare().toString());
     }
 }
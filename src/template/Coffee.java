@@ -1,16 +1,38 @@
 package template;
 
-import java.util.Locale;
-import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import sink.Sinks;
 
 public class Coffee extends CaffeineBeverage{
+
+    private final PreferenceProvider preferences;
+    private CompletableFuture<Boolean> wantsCondiments;
+
+    /**
+     * Creates a coffee whose customer is asked about milk and sugar at the console.
+     */
+    public Coffee(){
+        this(ConsolePreferences.shared());
+    }
+
+    /**
+     * Creates a coffee whose customer's preferences come from the given provider.
+     *
+     * @param preferences Provider of the customer's preferences.
+     */
+    public Coffee(PreferenceProvider preferences){
+        this.preferences = preferences;
+    }
+
     /**
      * {@inheritDoc}
      * This implementation brews coffee beans.
      */
     @Override
      void brew() {
-        System.out.println("Brewing coffee beans...");
+        Sinks.current().emit("Brewing coffee beans...");
     }
 
     /**
@@ -19,23 +41,39 @@ public class Coffee extends CaffeineBeverage{
      */
     @Override
     void addCondiments() {
-        System.out.println("Adding milk and sugar");
+        Sinks.current().emit("Adding milk and sugar");
     }
 
     /**
-     * Asks a customer if they would like milk and sugar in their coffee.
+     * Asks the preference provider if the customer would like milk and sugar.  The answer arrives while the rest of
+     * the recipe goes on.
+     */
+    @Override
+    void askPreferences(){
+        this.wantsCondiments = this.preferences.wantsCondiments(this);
+    }
+
+    @Override
+    String condimentsQuestion(){
+        return "Would you like milk and sugar with your coffee?";
+    }
+
+    /**
+     * Returns the customer's answer about milk and sugar, waiting for it only if it hasn't arrived yet.  If the
+     * answer can't be had, the coffee is made the default way.
      *
-     * @return true iff customer says 'Yes' to the prompt for milk and sugar.
+     * @return true iff customer wants milk and sugar.
      */
     @Override
     boolean customerWantsCondiments(){
-        System.out.println("Would you like milk and sugar with your coffee?");
-        Scanner s = new Scanner(System.in);
-
-        String answer = s.nextLine();
-        if(answer.toLowerCase().equals("yes")){
-            return true;
+        if (this.wantsCondiments == null){
+            this.askPreferences();
+        }
+        try {
+            return this.wantsCondiments.join();
+        } catch (CompletionException e) {
+            Sinks.current().emit("Couldn't get the customer's preferences (" + e.getCause() + "), using the default");
+            return super.customerWantsCondiments();
         }
-        return false;
     }
 }
@@ -0,0 +1,42 @@
+package template;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+
+import sink.Sinks;
+
+/**
+ * A preference provider that asks the customer at the console.  There is only ever one console provider, sharing a
+ * single reader over System.in, because several readers over the same stream would each buffer (and lose) some of
+ * the other's input.
+ */
+public class ConsolePreferences extends LinePreferences {
+
+    private static final ConsolePreferences SHARED = new ConsolePreferences();
+
+    private ConsolePreferences(){
+        super(new BufferedReader(new InputStreamReader(System.in)), new DefaultPreferences(false), "console-preferences");
+    }
+
+    /**
+     * Returns the provider reading from the console.
+     *
+     * @return The shared console provider.
+     */
+    public static ConsolePreferences shared(){
+        return SHARED;
+    }
+
+    @Override
+    protected void beforeRead(CaffeineBeverage beverage) {
+        Sinks.current().emit(beverage.condimentsQuestion());
+        // The prompt must reach the console before the customer is expected to answer
+        Sinks.current().flush();
+    }
+
+    /**
+     * Does nothing: the console provider is shared by the whole program, as is System.in, so it is never closed.
+     */
+    @Override
+    public void close() { }
+}
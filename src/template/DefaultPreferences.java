@@ -0,0 +1,25 @@
+package template;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A preference provider that gives the same answer to every question, for customers who never say otherwise.
+ */
+public class DefaultPreferences implements PreferenceProvider {
+
+    private final boolean wantsCondiments;
+
+    /**
+     * Creates a provider with a fixed answer.
+     *
+     * @param wantsCondiments Answer given for every beverage.
+     */
+    public DefaultPreferences(boolean wantsCondiments){
+        this.wantsCondiments = wantsCondiments;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> wantsCondiments(CaffeineBeverage beverage) {
+        return CompletableFuture.completedFuture(this.wantsCondiments);
+    }
+}
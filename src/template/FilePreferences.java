@@ -0,0 +1,23 @@
+package template;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A preference provider that answers from a batch file of preferences, one line per order in the order the
+ * beverages will ask.
+ */
+public class FilePreferences extends LinePreferences {
+
+    /**
+     * Opens the given file of preferences.
+     *
+     * @param file File with one answer ("yes" or "no") per line.
+     * @param fallback Provider that answers once the file has run out.
+     * @throws IOException If the file can't be opened.
+     */
+    public FilePreferences(Path file, PreferenceProvider fallback) throws IOException {
+        super(Files.newBufferedReader(file), fallback, "preferences-" + file.getFileName());
+    }
+}
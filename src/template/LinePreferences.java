@@ -0,0 +1,125 @@
+package template;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import sink.Sinks;
+
+/**
+ * An abstract class for preference providers that read one answer per line of text ("yes" or anything else).  Every
+ * provider has a single reader and a single background thread reading from it, so questions are answered in the order
+ * they were asked and the thread preparing the beverage never waits on the read.  Once the input ends, can't be
+ * read or the provider is closed, a fallback provider answers.
+ */
+public abstract class LinePreferences implements PreferenceProvider, AutoCloseable {
+
+    private final BufferedReader reader;
+    private final PreferenceProvider fallback;
+    private final ExecutorService readerThread;
+    // Answers not given yet, with the beverage each is for, so close() can hand them to the fallback.
+    private final ConcurrentHashMap<CompletableFuture<Boolean>, CaffeineBeverage> pending;
+    private boolean exhausted;
+
+    /**
+     * Creates a provider reading answers from the given reader.
+     *
+     * @param reader Source of answers, one per line.
+     * @param fallback Provider that answers once the input has ended.
+     * @param name Name of the background thread.
+     */
+    protected LinePreferences(BufferedReader reader, PreferenceProvider fallback, String name){
+        this.reader = reader;
+        this.fallback = fallback;
+        this.readerThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pending = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> wantsCondiments(CaffeineBeverage beverage) {
+        CompletableFuture<Boolean> answer = new CompletableFuture<>();
+        this.pending.put(answer, beverage);
+        answer.whenComplete((wants, failure) -> this.pending.remove(answer));
+        try {
+            this.readerThread.execute(() -> this.answer(answer, beverage));
+        } catch (RejectedExecutionException e) {
+            // Closed: nothing more will be read
+            this.answerWithFallback(answer, beverage);
+            return answer;
+        }
+        this.beforeRead(beverage);
+        return answer;
+    }
+
+    /**
+     * Stops the background thread and closes the input.  Questions still waiting for their answer are answered by the
+     * fallback provider straight away, as is any question asked afterwards.
+     *
+     * @throws IOException If the input can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.readerThread.shutdownNow();
+        try {
+            this.reader.close();
+        } finally {
+            // Shut down first, so no question can be queued behind this sweep and left waiting.
+            this.pending.forEach(this::answerWithFallback);
+        }
+    }
+
+    /**
+     * Called on the asking thread before the answer for the given beverage is read.  Does nothing by default.
+     *
+     * @param beverage Beverage being asked about.
+     */
+    protected void beforeRead(CaffeineBeverage beverage) { }
+
+    // Only ever runs on the reader thread.
+    private void answer(CompletableFuture<Boolean> answer, CaffeineBeverage beverage){
+        String line = this.readLine();
+        if (line != null){
+            answer.complete(line.trim().equalsIgnoreCase("yes"));
+        } else {
+            this.answerWithFallback(answer, beverage);
+        }
+    }
+
+    private void answerWithFallback(CompletableFuture<Boolean> answer, CaffeineBeverage beverage){
+        this.fallback.wantsCondiments(beverage).whenComplete((wants, failure) -> {
+            if (failure == null){
+                answer.complete(wants);
+            } else {
+                answer.completeExceptionally(failure);
+            }
+        });
+    }
+
+    // Only ever runs on the reader thread.
+    private String readLine(){
+        if (this.exhausted){
+            return null;
+        }
+        try {
+            String line = this.reader.readLine();
+            this.exhausted = line == null;
+            return line;
+        } catch (IOException e) {
+            // Treat unreadable input as ended, so the fallback answers instead of the order failing.  Input closed by
+            // close() isn't worth reporting.
+            if (!this.readerThread.isShutdown()){
+                Sinks.current().emit("Couldn't read preferences (" + e.getMessage() + "), using the default from now on");
+            }
+            this.exhausted = true;
+            return null;
+        }
+    }
+}
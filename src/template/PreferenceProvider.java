@@ -0,0 +1,19 @@
+package template;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An interface for where a beverage gets its customer's preferences from.  Preferences are asked for asynchronously:
+ * a beverage asks when the order is taken, carries on boiling and brewing, and only needs the answer once it gets to
+ * the condiments.
+ */
+public interface PreferenceProvider {
+
+    /**
+     * Asks whether the customer wants condiments in the given beverage.
+     *
+     * @param beverage Beverage being prepared.
+     * @return The answer, completed now or once it is known.
+     */
+    public CompletableFuture<Boolean> wantsCondiments(CaffeineBeverage beverage);
+}
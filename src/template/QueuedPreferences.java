@@ -0,0 +1,39 @@
+package template;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A preference provider that answers from preferences collected ahead of time, e.g. when orders are taken at the
+ * till.  Each question takes the next answer from the queue; once the queue runs dry, a fallback provider answers.
+ */
+public class QueuedPreferences implements PreferenceProvider {
+
+    private final ConcurrentLinkedQueue<Boolean> answers;
+    private final PreferenceProvider fallback;
+
+    /**
+     * Creates a provider with no answers queued yet.
+     *
+     * @param fallback Provider that answers when no queued answer is left.
+     */
+    public QueuedPreferences(PreferenceProvider fallback){
+        this.answers = new ConcurrentLinkedQueue<>();
+        this.fallback = fallback;
+    }
+
+    /**
+     * Queues the answer for the next beverage that asks.
+     *
+     * @param wantsCondiments Whether that customer wants condiments.
+     */
+    public void offer(boolean wantsCondiments){
+        this.answers.offer(wantsCondiments);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> wantsCondiments(CaffeineBeverage beverage) {
+        Boolean answer = this.answers.poll();
+        return answer != null ? CompletableFuture.completedFuture(answer) : this.fallback.wantsCondiments(beverage);
+    }
+}
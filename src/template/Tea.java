@@ -1,5 +1,7 @@
 package template;
 
+import sink.Sinks;
+
 public class Tea extends CaffeineBeverage{
 
     /**
@@ -8,7 +10,7 @@ public class Tea extends CaffeineBeverage{
      */
     @Override
     void brew() {
-        System.out.println("Steeping tea bags...");
+        Sinks.current().emit("Steeping tea bags...");
     }
 
     /**
@@ -17,6 +19,6 @@ public class Tea extends CaffeineBeverage{
      */
     @Override
     void addCondiments() {
-        System.out.println("Adding lemon");
+        Sinks.current().emit("Adding lemon");
     }
 }